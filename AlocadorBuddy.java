@@ -0,0 +1,211 @@
+import java.util.*;
+
+/**
+ * Alocador buddy binário, para comparar com as estratégias de
+ * {@link GerenciamentoMemoria} (mesmo {@link Processo}, mesmo par
+ * alocar/desalocar).
+ *
+ * Cada pedido é arredondado para a potência de 2 seguinte (a "ordem" k do
+ * bloco). Se não há bloco livre da ordem k, um bloco maior é dividido ao
+ * meio até chegar nela; ao liberar, o bloco se junta ao seu buddy (o vizinho
+ * de mesmo tamanho, endereço XOR 2^k) enquanto ele estiver livre. Dividir e
+ * juntar custam O(nº de ordens) = O(log n).
+ *
+ * As listas livres por ordem são um bit por bloco (MapaBits, bit 1 = livre)
+ * para achar o buddy em O(1), mais uma pilha de candidatos de onde se tira
+ * um bloco qualquer. Quem sai da lista por junção só tem o bit apagado; a
+ * entrada velha na pilha é descartada ao aparecer (a pilha é compactada se
+ * crescer demais). Nada é guardado por unidade de memória.
+ *
+ * Uma memória que não é potência de 2 começa como os blocos da sua
+ * representação binária (100 = 64 + 32 + 4); buddies fora da memória nunca
+ * estão livres, então esses blocos não se juntam.
+ *
+ * Fragmentação interna = unidades reservadas além do pedido por causa do
+ * arredondamento.
+ */
+public class AlocadorBuddy {
+
+    private final int tamanho;
+    private final int ordens;            // ordens 0 .. ordens - 1
+    private final MapaBits[] livre;      // livre[k]: bit b = bloco b de ordem k está livre
+    private final int[][] pilha;
+    private final int[] topo;
+    private final long[] nLivres;
+    boolean verboso = true;
+
+    // estatísticas
+    long pedido;      // soma dos tamanhos pedidos pelos processos alocados
+    long reservado;   // soma dos blocos entregues a eles (potências de 2)
+    long alocacoes, falhas, divisoes, juncoes;
+
+    public AlocadorBuddy(int tamanho) {
+        if (tamanho < 1) throw new IllegalArgumentException("tamanho deve ser >= 1");
+        this.tamanho = tamanho;
+        this.ordens = 32 - Integer.numberOfLeadingZeros(tamanho);
+        livre = new MapaBits[ordens];
+        pilha = new int[ordens][];
+        topo = new int[ordens];
+        nLivres = new long[ordens];
+        for (int k = 0; k < ordens; k++) {
+            livre[k] = new MapaBits(((long) tamanho + (1L << k) - 1) >>> k);
+            pilha[k] = new int[4];
+        }
+        // blocos iniciais: os bits de tamanho, do maior para o menor
+        int inicio = 0;
+        for (int k = ordens - 1; k >= 0; k--) {
+            if ((tamanho >>> k & 1) == 0) continue;
+            empilhar(k, inicio >>> k);
+            inicio += 1 << k;
+        }
+    }
+
+    // menor k com 2^k >= t
+    static int ordem(int t) {
+        return t <= 1 ? 0 : 32 - Integer.numberOfLeadingZeros(t - 1);
+    }
+
+    // ========================
+    // ALOCAÇÃO
+    // ========================
+    public boolean alocar(Processo p) {
+        int k = ordem(p.tamanho);
+        int j = k;
+        while (j < ordens && nLivres[j] == 0) j++;
+        if (p.tamanho <= 0 || j >= ordens) {
+            falhas++;
+            if (verboso) System.out.println("Buddy: sem bloco para " + p.id + " (" + p.tamanho + ")");
+            return false;
+        }
+        int b = desempilhar(j);
+        while (j > k) {
+            // divide: a metade de cima fica livre na ordem de baixo
+            j--;
+            b <<= 1;
+            empilhar(j, b + 1);
+            divisoes++;
+        }
+        p.inicio = b << k;
+        pedido += p.tamanho;
+        reservado += 1L << k;
+        alocacoes++;
+        if (verboso) System.out.println("Buddy: " + p.id + " alocado em " + p.inicio + " (bloco de " + (1 << k) + ")");
+        return true;
+    }
+
+    public void desalocar(Processo p) {
+        if (p.inicio == -1) {
+            if (verboso) System.out.println("Processo " + p.id + " não está na memória.");
+            return;
+        }
+        int k = ordem(p.tamanho);
+        int b = p.inicio >>> k;
+        if (livre[k].ocupado(b)) throw new IllegalStateException("Bloco de " + p.id + " já está livre");
+        pedido -= p.tamanho;
+        reservado -= 1L << k;
+        // junta com o buddy enquanto ele estiver livre
+        while (k + 1 < ordens && livre[k].ocupado(b ^ 1)) {
+            livre[k].definir(b ^ 1, (b ^ 1) + 1, false); // sai da lista; a entrada na pilha fica velha
+            nLivres[k]--;
+            b >>>= 1;
+            k++;
+            juncoes++;
+        }
+        empilhar(k, b);
+        p.inicio = -1;
+        if (verboso) System.out.println("Buddy: " + p.id + " desalocado");
+    }
+
+    // ========================
+    // LISTAS LIVRES
+    // ========================
+    private void empilhar(int k, int b) {
+        livre[k].definir(b, b + 1L, true);
+        nLivres[k]++;
+        if (topo[k] == pilha[k].length) {
+            if (topo[k] > 2 * nLivres[k] + 16) compactar(k);
+            else pilha[k] = Arrays.copyOf(pilha[k], topo[k] * 2);
+        }
+        pilha[k][topo[k]++] = b;
+    }
+
+    // algum bloco livre da ordem k (nLivres[k] > 0)
+    private int desempilhar(int k) {
+        while (true) {
+            int b = pilha[k][--topo[k]];
+            if (livre[k].ocupado(b)) {
+                livre[k].definir(b, b + 1L, false);
+                nLivres[k]--;
+                return b;
+            }
+        }
+    }
+
+    // tira da pilha as entradas velhas e as repetidas
+    private void compactar(int k) {
+        int n = 0;
+        MapaBits m = livre[k];
+        for (int i = 0; i < topo[k]; i++) {
+            int b = pilha[k][i];
+            if (!m.ocupado(b)) continue;
+            m.definir(b, b + 1L, false); // marca como visto
+            pilha[k][n++] = b;
+        }
+        for (int i = 0; i < n; i++) m.definir(pilha[k][i], pilha[k][i] + 1L, true);
+        topo[k] = n;
+    }
+
+    // ========================
+    // ESTATÍSTICAS
+    // ========================
+    public int tamanho() {
+        return tamanho;
+    }
+
+    public long livres() {
+        long n = 0;
+        for (int k = 0; k < ordens; k++) n += nLivres[k] << k;
+        return n;
+    }
+
+    public int maiorBlocoLivre() {
+        for (int k = ordens - 1; k >= 0; k--) if (nLivres[k] > 0) return 1 << k;
+        return 0;
+    }
+
+    // fração do reservado que é só arredondamento
+    public double fragmentacaoInterna() {
+        return reservado == 0 ? 0 : (double) (reservado - pedido) / reservado;
+    }
+
+    // 1 - maior bloco livre / memória livre
+    public double fragmentacaoExterna() {
+        long l = livres();
+        return l == 0 ? 0 : 1.0 - (double) maiorBlocoLivre() / l;
+    }
+
+    public void imprimirEstado() {
+        StringBuilder sb = new StringBuilder("Blocos livres por tamanho:");
+        for (int k = 0; k < ordens; k++) if (nLivres[k] > 0) sb.append(' ').append(1 << k).append('x').append(nLivres[k]);
+        System.out.println(sb);
+        System.out.printf(Locale.ROOT, "Pedido: %d  Reservado: %d  Livre: %d  Frag. interna: %.1f%%  Frag. externa: %.1f%%%n",
+                          pedido, reservado, livres(), 100 * fragmentacaoInterna(), 100 * fragmentacaoExterna());
+        System.out.println("Alocações: " + alocacoes + "  Falhas: " + falhas + "  Divisões: " + divisoes
+                           + "  Junções: " + juncoes);
+    }
+
+    // exemplo de uso
+    public static void main(String[] args) {
+        AlocadorBuddy buddy = new AlocadorBuddy(64);
+        Processo p1 = new Processo("P1", 5);
+        Processo p2 = new Processo("P2", 4);
+        Processo p3 = new Processo("P3", 17);
+        buddy.alocar(p1);
+        buddy.alocar(p2);
+        buddy.alocar(p3);
+        buddy.imprimirEstado();
+        buddy.desalocar(p2);
+        buddy.desalocar(p1);
+        buddy.imprimirEstado();
+    }
+}
@@ -0,0 +1,269 @@
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Alocador para várias threads: o espaço de endereços é dividido em arenas,
+ * cada uma um {@link GerenciamentoMemoria} próprio (First Fit) com a sua
+ * trava. O GerenciamentoMemoria em si continua sem sincronização; só é
+ * tocado com a trava da arena.
+ *
+ * - Cada thread tem uma arena "de casa", distribuídas em rodízio, e aloca
+ *   nela; com tantas arenas quanto threads as travas quase nunca disputam.
+ * - Arena sem espaço: pega emprestado das vizinhas, alternando os lados
+ *   (casa + 1, casa - 1, casa + 2, ...).
+ * - Liberar um bloco da própria arena é direto. Um bloco de outra arena
+ *   entra num lote da thread para aquela arena; o lote cheio (LOTE
+ *   entradas) é liberado direto se a trava estiver livre, ou vai para a fila
+ *   da arena, esvaziada por quem pegar a trava dela na próxima vez.
+ *
+ * Os lotes guardam (início, tamanho), não o Processo, então o Processo volta
+ * a -1 na hora e pode ser reaproveitado. Um Processo passado entre threads
+ * precisa de uma passagem segura (fila concorrente, join...), como qualquer
+ * objeto. Blocos maiores que uma arena nunca cabem; as arenas não compactam.
+ */
+public class AlocadorConcorrente {
+
+    static final int LOTE = 32;
+
+    class Arena {
+        final int base;
+        final GerenciamentoMemoria gm;
+        final ReentrantLock trava = new ReentrantLock();
+        final ConcurrentLinkedQueue<long[]> remotas = new ConcurrentLinkedQueue<>();
+        // sob a trava
+        long alocacoes, emprestimos, lotesRecebidos;
+
+        Arena(int base, int tamanho) {
+            this.base = base;
+            this.gm = new GerenciamentoMemoria(tamanho);
+            gm.verboso = false;
+        }
+
+        // com a trava
+        boolean alocar(Processo p) {
+            drenar();
+            if (!gm.firstFit(p)) return false;
+            p.inicio += base;
+            alocacoes++;
+            return true;
+        }
+
+        void liberar(long[] lote, int n) {
+            for (int i = 0; i < n; i++) gm.liberar((int) (lote[i] >>> 32), (int) lote[i]);
+            lotesRecebidos++;
+        }
+
+        void drenar() {
+            long[] lote;
+            while ((lote = remotas.poll()) != null) liberar(lote, lote.length);
+        }
+    }
+
+    // estado de cada thread: arena de casa e lotes por arena
+    private class Local {
+        final int casa = Math.floorMod(proximaCasa.getAndIncrement(), arenas.length);
+        final long[][] lotes = new long[arenas.length][];
+        final int[] n = new int[arenas.length];
+    }
+
+    private final Arena[] arenas;
+    private final int tamanhoArena;
+    private final AtomicInteger proximaCasa = new AtomicInteger();
+    private final ThreadLocal<Local> local = ThreadLocal.withInitial(Local::new);
+    final AtomicLong falhas = new AtomicLong();
+    final AtomicLong lotesEnviados = new AtomicLong();
+
+    public AlocadorConcorrente(int tamanho, int nArenas) {
+        if (nArenas < 1 || tamanho < nArenas) throw new IllegalArgumentException("Precisa de 1 <= arenas <= tamanho");
+        tamanhoArena = tamanho / nArenas;
+        arenas = new Arena[nArenas];
+        for (int i = 0; i < nArenas; i++) {
+            int fim = i == nArenas - 1 ? tamanho : (i + 1) * tamanhoArena; // a última fica com o resto
+            arenas[i] = new Arena(i * tamanhoArena, fim - i * tamanhoArena);
+        }
+    }
+
+    // ========================
+    // ALOCAÇÃO
+    // ========================
+    public boolean alocar(Processo p) {
+        if (p.tamanho <= 0) {
+            falhas.incrementAndGet();
+            return false;
+        }
+        Local l = local.get();
+        for (int tentativa = 0; tentativa < 2; tentativa++) {
+            for (int d = 0; d < arenas.length; d++) {
+                Arena a = arenas[vizinha(l.casa, d)];
+                a.trava.lock();
+                try {
+                    if (a.alocar(p)) {
+                        if (d > 0) a.emprestimos++;
+                        return true;
+                    }
+                } finally {
+                    a.trava.unlock();
+                }
+            }
+            liberarPendentes(); // os lotes desta thread podem estar segurando o espaço
+        }
+        falhas.incrementAndGet();
+        return false;
+    }
+
+    // d-ésima arena a partir da casa, alternando os lados: casa, +1, -1, +2, -2, ...
+    private int vizinha(int casa, int d) {
+        int passo = (d & 1) == 1 ? (d + 1) / 2 : -d / 2;
+        return Math.floorMod(casa + passo, arenas.length);
+    }
+
+    public void desalocar(Processo p) {
+        if (p.inicio == -1) return;
+        int i = Math.min(p.inicio / tamanhoArena, arenas.length - 1);
+        Arena a = arenas[i];
+        long entrada = (long) (p.inicio - a.base) << 32 | p.tamanho;
+        p.inicio = -1;
+        Local l = local.get();
+        if (i == l.casa) {
+            a.trava.lock();
+            try {
+                a.drenar();
+                a.gm.liberar((int) (entrada >>> 32), (int) entrada);
+            } finally {
+                a.trava.unlock();
+            }
+            return;
+        }
+        if (l.lotes[i] == null) l.lotes[i] = new long[LOTE];
+        l.lotes[i][l.n[i]++] = entrada;
+        if (l.n[i] == LOTE) enviar(l, i);
+    }
+
+    private void enviar(Local l, int i) {
+        Arena a = arenas[i];
+        int n = l.n[i];
+        if (n == 0) return;
+        l.n[i] = 0;
+        lotesEnviados.incrementAndGet();
+        if (a.trava.tryLock()) {
+            try {
+                a.liberar(l.lotes[i], n);
+            } finally {
+                a.trava.unlock();
+            }
+        } else {
+            a.remotas.add(Arrays.copyOf(l.lotes[i], n));
+        }
+    }
+
+    // envia os lotes incompletos da thread atual (chamar antes de a thread terminar)
+    public void liberarPendentes() {
+        Local l = local.get();
+        for (int i = 0; i < arenas.length; i++) enviar(l, i);
+    }
+
+    // ========================
+    // ESTATÍSTICAS
+    // ========================
+    public long ocupadas() {
+        long n = 0;
+        for (Arena a : arenas) n += a.gm.ocupadas.ler();
+        return n;
+    }
+
+    public void imprimirEstatisticas() {
+        System.out.println("Arena\tOcupadas\tAlocações\tEmpréstimos\tLotes recebidos");
+        for (int i = 0; i < arenas.length; i++) {
+            Arena a = arenas[i];
+            a.trava.lock();
+            try {
+                a.drenar();
+                System.out.println(i + "\t" + a.gm.ocupadas.ler() + "/" + a.gm.tamanho() + "\t" + a.alocacoes + "\t\t"
+                                   + a.emprestimos + "\t\t" + a.lotesRecebidos);
+            } finally {
+                a.trava.unlock();
+            }
+        }
+        System.out.println("Falhas: " + falhas.get() + "  Lotes enviados: " + lotesEnviados.get());
+    }
+
+    // ========================
+    // TESTE DE ESTRESSE
+    // ========================
+    // "threads" threads alocando e liberando blocos de 1..16 por janelaMs; cada uma mantém até
+    // VIVOS blocos e 1 em 8 liberações é de um bloco alocado por outra thread. Devolve as operações.
+    static final int VIVOS = 64;
+
+    static long operacoesEm(AlocadorConcorrente alocador, int threads, long janelaMs) throws InterruptedException {
+        AtomicBoolean parar = new AtomicBoolean();
+        ConcurrentLinkedQueue<Processo> trocas = new ConcurrentLinkedQueue<>();
+        long[] ops = new long[threads];
+        Thread[] ts = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            int id = t;
+            ts[t] = new Thread(() -> {
+                SplittableRandom rand = new SplittableRandom(id);
+                Processo[] vivos = new Processo[VIVOS];
+                int n = 0;
+                long feitas = 0;
+                while (!parar.get()) {
+                    if (n == VIVOS || (n > 0 && rand.nextBoolean())) {
+                        int k = rand.nextInt(n);
+                        Processo p = vivos[k];
+                        vivos[k] = vivos[--n];
+                        if (rand.nextInt(8) == 0) {
+                            trocas.add(p); // outra thread libera este
+                            p = trocas.poll();
+                        }
+                        if (p != null) alocador.desalocar(p);
+                    } else {
+                        Processo p = new Processo("E", 1 + rand.nextInt(16));
+                        if (alocador.alocar(p)) vivos[n++] = p;
+                    }
+                    feitas++;
+                }
+                for (int k = 0; k < n; k++) alocador.desalocar(vivos[k]);
+                alocador.liberarPendentes();
+                ops[id] = feitas;
+            }, "alocador-" + t);
+            ts[t].start();
+        }
+        Thread.sleep(janelaMs);
+        parar.set(true);
+        long total = 0;
+        for (int t = 0; t < threads; t++) {
+            ts[t].join();
+            total += ops[t];
+        }
+        Processo p;
+        while ((p = trocas.poll()) != null) alocador.desalocar(p);
+        alocador.liberarPendentes();
+        return total;
+    }
+
+    // exemplo de uso: java AlocadorConcorrente [threads] [janelaMs]
+    // varre de 1 até "threads" threads, com uma arena só e com uma arena por thread, e mostra as
+    // operações por segundo de cada ponto (a escala é a razão entre as duas colunas e a linha de 1 thread)
+    public static void main(String[] args) throws InterruptedException {
+        int maxThreads = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+        long janelaMs = args.length > 1 ? Long.parseLong(args[1]) : 500;
+        System.out.println("Threads\t1 arena (ops/s)\tArena por thread (ops/s)\tEscala");
+        double base = 0;
+        AlocadorConcorrente ultimo = null;
+        for (int t = 1; t <= maxThreads; t++) {
+            double umaArena = operacoesEm(new AlocadorConcorrente(1 << 20, 1), t, janelaMs) * 1000.0 / janelaMs;
+            ultimo = new AlocadorConcorrente(1 << 20, t);
+            double porThread = operacoesEm(ultimo, t, janelaMs) * 1000.0 / janelaMs;
+            if (t == 1) base = porThread;
+            System.out.printf(Locale.ROOT, "%d\t%.0f\t\t%.0f\t\t\t%.2fx%n", t, umaArena, porThread,
+                              base == 0 ? 0 : porThread / base);
+        }
+        if (ultimo == null) return;
+        ultimo.imprimirEstatisticas();
+        System.out.println("Ocupadas no fim: " + ultimo.ocupadas());
+    }
+}
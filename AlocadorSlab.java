@@ -0,0 +1,234 @@
+import java.util.*;
+
+/**
+ * Camada de slabs (caches de objetos de tamanho fixo) sobre o
+ * {@link GerenciamentoMemoria}.
+ *
+ * Para cada tamanho de objeto até {@link #maiorObjeto} há um cache; um slab
+ * é um bloco de tamanhoSlab unidades pedido ao gerenciador (First Fit) e
+ * dividido em slots iguais. Os slots livres de um slab formam uma lista
+ * embutida (int[] com o próximo slot), então alocar e liberar são O(1) e
+ * dentro do slab não há fragmentação externa; o que sobra é o resto da
+ * divisão tamanhoSlab / tamanhoObjeto e os slots vazios dos slabs parciais.
+ *
+ * Cada cache mantém os slabs parciais e cheios em listas duplamente
+ * encadeadas; um slab que esvazia é devolvido ao gerenciador, menos um por
+ * cache, guardado vazio para que alocar/liberar no limite não crie e
+ * destrua slabs toda hora. Pedidos maiores que maiorObjeto vão direto para
+ * o gerenciador.
+ *
+ * Para liberar sem busca, a memória é vista em pedaços de tamanhoSlab
+ * unidades: cada pedaço encosta em no máximo dois slabs, guardados em dois
+ * vetores indexados pelo pedaço.
+ */
+public class AlocadorSlab {
+
+    private final GerenciamentoMemoria gm;
+    private final int tamanhoSlab;
+    final int maiorObjeto;
+    private final Map<Integer, Cache> caches = new TreeMap<>();
+    private final Slab[] pedacoA, pedacoB;
+    private int proximoSlab;
+
+    // pedidos que não couberam em slab
+    long grandes, falhas;
+
+    class Slab {
+        final Processo bloco;
+        final Cache cache;
+        final int[] proximo;   // lista embutida de slots livres
+        int livre;             // primeiro slot livre, -1 se cheio
+        int usados;
+        Slab ant, prox;        // na lista de parciais ou de cheios do cache
+
+        Slab(Processo bloco, Cache cache) {
+            this.bloco = bloco;
+            this.cache = cache;
+            proximo = new int[cache.porSlab];
+            for (int i = 0; i < proximo.length; i++) proximo[i] = i + 1 < proximo.length ? i + 1 : -1;
+        }
+
+        boolean contem(int endereco) {
+            return endereco >= bloco.inicio && endereco < bloco.inicio + tamanhoSlab;
+        }
+    }
+
+    class Cache {
+        final int tamanhoObjeto;
+        final int porSlab;
+        Slab parciais, cheios, vazio;
+        int slabs;
+        long emUso, alocacoes, criados, devolvidos;
+
+        Cache(int tamanhoObjeto) {
+            this.tamanhoObjeto = tamanhoObjeto;
+            this.porSlab = tamanhoSlab / tamanhoObjeto;
+        }
+    }
+
+    public AlocadorSlab(GerenciamentoMemoria gm, int tamanhoSlab) {
+        if (tamanhoSlab < 8) throw new IllegalArgumentException("tamanhoSlab deve ser >= 8");
+        this.gm = gm;
+        this.tamanhoSlab = tamanhoSlab;
+        this.maiorObjeto = tamanhoSlab / 8; // pelo menos 8 objetos por slab
+        int pedacos = gm.tamanho() / tamanhoSlab + 1;
+        pedacoA = new Slab[pedacos];
+        pedacoB = new Slab[pedacos];
+    }
+
+    // ========================
+    // ALOCAÇÃO
+    // ========================
+    public boolean alocar(Processo p) {
+        if (p.tamanho <= 0) {
+            falhas++;
+            return false;
+        }
+        if (p.tamanho > maiorObjeto) {
+            grandes++;
+            if (gm.firstFit(p)) return true;
+            falhas++;
+            return false;
+        }
+        Cache c = caches.computeIfAbsent(p.tamanho, Cache::new);
+        Slab s = c.parciais;
+        if (s == null) {
+            s = c.vazio != null ? c.vazio : novoSlab(c);
+            c.vazio = null;
+            if (s == null) {
+                falhas++;
+                return false;
+            }
+            c.parciais = inserir(c.parciais, s);
+        }
+        int slot = s.livre;
+        s.livre = s.proximo[slot];
+        s.usados++;
+        c.emUso++;
+        c.alocacoes++;
+        if (s.livre == -1) {
+            c.parciais = remover(c.parciais, s);
+            c.cheios = inserir(c.cheios, s);
+        }
+        p.inicio = s.bloco.inicio + slot * c.tamanhoObjeto;
+        return true;
+    }
+
+    public void desalocar(Processo p) {
+        if (p.inicio == -1) return;
+        Slab s = slabEm(p.inicio);
+        if (s == null) {
+            gm.desalocar(p); // objeto grande
+            return;
+        }
+        Cache c = s.cache;
+        int slot = (p.inicio - s.bloco.inicio) / c.tamanhoObjeto;
+        if (s.livre == -1) {
+            c.cheios = remover(c.cheios, s);
+            c.parciais = inserir(c.parciais, s);
+        }
+        s.proximo[slot] = s.livre;
+        s.livre = slot;
+        s.usados--;
+        c.emUso--;
+        p.inicio = -1;
+        if (s.usados == 0) {
+            c.parciais = remover(c.parciais, s);
+            if (c.vazio == null) c.vazio = s;
+            else devolver(s);
+        }
+    }
+
+    // ========================
+    // SLABS
+    // ========================
+    private Slab novoSlab(Cache c) {
+        Processo bloco = new Processo("slab" + c.tamanhoObjeto + "#" + proximoSlab++, tamanhoSlab);
+        bloco.fixo = true; // os objetos guardam endereços dentro do slab
+        if (!gm.firstFit(bloco)) return null;
+        Slab s = new Slab(bloco, c);
+        for (int i = bloco.inicio / tamanhoSlab; i <= (bloco.inicio + tamanhoSlab - 1) / tamanhoSlab; i++) {
+            if (pedacoA[i] == null) pedacoA[i] = s;
+            else pedacoB[i] = s;
+        }
+        c.slabs++;
+        c.criados++;
+        return s;
+    }
+
+    private void devolver(Slab s) {
+        for (int i = s.bloco.inicio / tamanhoSlab; i <= (s.bloco.inicio + tamanhoSlab - 1) / tamanhoSlab; i++) {
+            if (pedacoA[i] == s) pedacoA[i] = null;
+            else pedacoB[i] = null;
+        }
+        gm.desalocar(s.bloco);
+        s.cache.slabs--;
+        s.cache.devolvidos++;
+    }
+
+    private Slab slabEm(int endereco) {
+        int i = endereco / tamanhoSlab;
+        if (pedacoA[i] != null && pedacoA[i].contem(endereco)) return pedacoA[i];
+        if (pedacoB[i] != null && pedacoB[i].contem(endereco)) return pedacoB[i];
+        return null;
+    }
+
+    // listas duplamente encadeadas; devolvem a nova cabeça
+    private static Slab inserir(Slab cabeca, Slab s) {
+        s.ant = null;
+        s.prox = cabeca;
+        if (cabeca != null) cabeca.ant = s;
+        return s;
+    }
+
+    private static Slab remover(Slab cabeca, Slab s) {
+        if (s.ant != null) s.ant.prox = s.prox;
+        else cabeca = s.prox;
+        if (s.prox != null) s.prox.ant = s.ant;
+        s.ant = s.prox = null;
+        return cabeca;
+    }
+
+    // ========================
+    // ESTATÍSTICAS
+    // ========================
+    // por cache: slabs, ocupação dos slots e unidades paradas em slabs parciais
+    public void imprimirEstatisticas() {
+        System.out.println("==== Slabs (" + tamanhoSlab + " unidades cada) ====");
+        System.out.println("Objeto\tSlabs\tParciais\tEm uso\tCapacidade\tUtilização\tCusto parciais\tCriados\tDevolvidos");
+        for (Cache c : caches.values()) {
+            int parciais = 0;
+            long ociosas = 0; // slots livres + sobra da divisão, só nos parciais
+            for (Slab s = c.parciais; s != null; s = s.prox) {
+                parciais++;
+                ociosas += tamanhoSlab - (long) s.usados * c.tamanhoObjeto;
+            }
+            long capacidade = (long) c.slabs * c.porSlab;
+            System.out.printf(Locale.ROOT, "%d\t%d\t%d\t\t%d\t%d\t\t%.1f%%\t\t%d\t\t%d\t%d%n", c.tamanhoObjeto, c.slabs,
+                              parciais, c.emUso, capacidade, capacidade == 0 ? 0 : 100.0 * c.emUso / capacidade,
+                              ociosas, c.criados, c.devolvidos);
+        }
+        System.out.println("Pedidos grandes (direto no gerenciador): " + grandes + "  Falhas: " + falhas);
+        System.out.println("==================================\n");
+    }
+
+    // exemplo de uso
+    public static void main(String[] args) {
+        GerenciamentoMemoria gm = new GerenciamentoMemoria(4096);
+        gm.verboso = false;
+        AlocadorSlab slab = new AlocadorSlab(gm, 256);
+        Random rand = new Random(1);
+        int[] tamanhos = { 8, 16, 24, 32 };
+        List<Processo> vivos = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            if (!vivos.isEmpty() && rand.nextInt(3) == 0) {
+                slab.desalocar(vivos.remove(rand.nextInt(vivos.size())));
+            } else {
+                Processo p = new Processo("O" + i, tamanhos[rand.nextInt(tamanhos.length)]);
+                if (slab.alocar(p)) vivos.add(p);
+            }
+        }
+        slab.imprimirEstatisticas();
+        gm.imprimirMemoria();
+    }
+}
@@ -0,0 +1,246 @@
+import java.util.*;
+
+/**
+ * Round Robin analítico: tempos de conclusão, espera e retorno de cada
+ * processo sem simular fatia por fatia (versão Java de
+ * "roud robin escalonamento.py", com o mesmo resultado).
+ *
+ * Todos chegando juntos: o processo i precisa de k_i = ceil(b_i / q) voltas
+ * e termina na volta k_i. Até lá cada processo j já rodou min(b_j, (k_i-1)q);
+ * na volta k_i rodam antes dele os j de índice menor ainda vivos: q para
+ * quem tem k_j > k_i e a última fatia b_j - (k_i-1)q para quem tem k_j = k_i.
+ * A primeira parcela sai de somas por valor de k; a segunda, de uma árvore
+ * de Fenwick sobre os k distintos percorrendo os processos em ordem de
+ * índice. Com os k ordenados fica O(n log n); quando o maior k é O(n) o
+ * próprio k serve de índice e não há ordenação.
+ *
+ * Chegadas diferentes: simulação por eventos sobre uma fila de int, em que
+ * quem chega entra na fila antes do processo preemptado no mesmo instante.
+ * Quando nenhum processo da fila termina e ninguém chega nas próximas R
+ * voltas, as R voltas são aplicadas de uma vez (O(tamanho da fila)), então
+ * rajadas muito maiores que o quantum não custam uma iteração por fatia.
+ */
+public class AnalisadorRoundRobin {
+
+    public static class Resultado {
+        public final long[] conclusao;
+        public final long[] espera;
+        public final long[] retorno;
+
+        Resultado(long[] chegada, long[] rajadas, long[] conclusao) {
+            int n = rajadas.length;
+            this.conclusao = conclusao;
+            this.espera = new long[n];
+            this.retorno = new long[n];
+            for (int i = 0; i < n; i++) {
+                retorno[i] = conclusao[i] - (chegada == null ? 0 : chegada[i]);
+                espera[i] = retorno[i] - rajadas[i];
+            }
+        }
+
+        public double esperaMedia() {
+            return media(espera);
+        }
+
+        public double retornoMedio() {
+            return media(retorno);
+        }
+
+        private static double media(long[] v) {
+            if (v.length == 0) return 0;
+            double s = 0;
+            for (long x : v) s += x;
+            return s / v.length;
+        }
+    }
+
+    // todos chegam em t = 0
+    public static Resultado analisar(long[] rajadas, long quantum) {
+        validar(rajadas, quantum);
+        return new Resultado(null, rajadas, formaFechada(rajadas, quantum, 0));
+    }
+
+    public static Resultado analisar(long[] chegadas, long[] rajadas, long quantum) {
+        validar(rajadas, quantum);
+        if (chegadas.length != rajadas.length) throw new IllegalArgumentException("chegadas e rajadas com tamanhos diferentes");
+        boolean juntos = true;
+        for (long c : chegadas) if (c != chegadas[0]) juntos = false;
+        long[] conclusao = juntos && chegadas.length > 0 ? formaFechada(rajadas, quantum, chegadas[0])
+                                                         : simular(chegadas, rajadas, quantum);
+        return new Resultado(chegadas, rajadas, conclusao);
+    }
+
+    private static void validar(long[] rajadas, long quantum) {
+        if (quantum < 1) throw new IllegalArgumentException("quantum deve ser >= 1");
+        for (long b : rajadas) if (b < 0) throw new IllegalArgumentException("rajada negativa: " + b);
+    }
+
+    // ========================
+    // FORMA FECHADA
+    // ========================
+    static long[] formaFechada(long[] b, long q, long inicio) {
+        int n = b.length;
+        long[] conclusao = new long[n];
+        if (n == 0) return conclusao;
+
+        // grupo de cada processo = posição do seu k entre os k distintos (ks, crescente)
+        long kMax = 1;
+        for (long v : b) kMax = Math.max(kMax, voltas(v, q));
+        int[] grupo = new int[n];
+        long[] ks;
+        if (kMax <= 4L * n + 16) {
+            ks = new long[(int) kMax]; // k pequeno: o próprio k indexa, sem ordenar
+            for (int x = 0; x < ks.length; x++) ks[x] = x + 1;
+            for (int i = 0; i < n; i++) grupo[i] = (int) voltas(b[i], q) - 1;
+        } else {
+            long[] ordenados = new long[n];
+            for (int i = 0; i < n; i++) ordenados[i] = voltas(b[i], q);
+            Arrays.sort(ordenados);
+            int g = 0;
+            for (long k : ordenados) if (g == 0 || ordenados[g - 1] != k) ordenados[g++] = k;
+            ks = Arrays.copyOf(ordenados, g);
+            for (int i = 0; i < n; i++) grupo[i] = Arrays.binarySearch(ks, voltas(b[i], q));
+        }
+        int g = ks.length;
+
+        // CPU de todos nas voltas antes da volta ks[x]: quem tem k menor já terminou
+        // (rajada inteira), os outros rodaram (ks[x] - 1) fatias cheias
+        long[] cont = new long[g];
+        long[] soma = new long[g];
+        for (int i = 0; i < n; i++) {
+            cont[grupo[i]]++;
+            soma[grupo[i]] += b[i];
+        }
+        long[] antes = new long[g];
+        long somaMenores = 0, contMaiores = n;
+        for (int x = 0; x < g; x++) {
+            antes[x] = somaMenores + (ks[x] - 1) * q * contMaiores;
+            somaMenores += soma[x];
+            contMaiores -= cont[x];
+        }
+
+        // em ordem de índice: quantos anteriores têm k maior (Fenwick sobre os grupos)
+        // e quanto os anteriores do mesmo grupo rodam na última volta
+        int[] fenwick = new int[g + 1];
+        long[] ultimasVistas = new long[g];
+        for (int i = 0; i < n; i++) {
+            int x = grupo[i];
+            int ateX = 0;
+            for (int j = x + 1; j > 0; j -= j & -j) ateX += fenwick[j];
+            long ultima = b[i] - (ks[x] - 1) * q;
+            conclusao[i] = inicio + antes[x] + q * (i - ateX) + ultimasVistas[x] + ultima;
+            ultimasVistas[x] += ultima;
+            for (int j = x + 1; j <= g; j += j & -j) fenwick[j]++;
+        }
+        return conclusao;
+    }
+
+    // voltas até terminar; rajada 0 ainda ocupa a primeira volta
+    private static long voltas(long rajada, long q) {
+        return Math.max(1, (rajada + q - 1) / q);
+    }
+
+    // ========================
+    // POR EVENTOS
+    // ========================
+    static long[] simular(long[] chegada, long[] b, long q) {
+        int n = b.length;
+        long[] conclusao = new long[n];
+        long[] restante = b.clone();
+        int[] ordem = ordenarPorChegada(chegada);
+        FilaCircularInt fila = new FilaCircularInt(Math.max(1, n));
+
+        long t = 0;
+        int prox = 0;
+        int concluidos = 0;
+        int desdeVarredura = 0;
+        while (concluidos < n) {
+            if (fila.vazia()) {
+                t = Math.max(t, chegada[ordem[prox]]); // CPU ociosa até a próxima chegada
+                desdeVarredura = 0;
+            }
+            while (prox < n && chegada[ordem[prox]] <= t) fila.adicionar(ordem[prox++]);
+
+            // a cada volta completa, tenta pular as voltas em que nada muda
+            int m = fila.tamanho();
+            if (++desdeVarredura > m) {
+                desdeVarredura = 0;
+                long menor = Long.MAX_VALUE;
+                for (int k = 0; k < m; k++) menor = Math.min(menor, restante[fila.get(k)]);
+                long r = (menor - 1) / q;
+                if (prox < n) r = Math.min(r, Math.max(0, chegada[ordem[prox]] - t - 1) / m / q);
+                if (r > 0) {
+                    for (int k = 0; k < m; k++) restante[fila.get(k)] -= r * q;
+                    t += r * m * q;
+                }
+            }
+
+            int i = fila.retirar();
+            long fatia = Math.min(q, restante[i]);
+            t += fatia;
+            restante[i] -= fatia;
+            while (prox < n && chegada[ordem[prox]] <= t) fila.adicionar(ordem[prox++]); // antes do preemptado
+            if (restante[i] == 0) {
+                conclusao[i] = t;
+                concluidos++;
+            } else {
+                fila.adicionar(i);
+            }
+        }
+        return conclusao;
+    }
+
+    // índices em ordem de chegada (estável); sem ordenar se já estiverem em ordem
+    private static int[] ordenarPorChegada(long[] chegada) {
+        int n = chegada.length;
+        boolean ordenado = true;
+        for (int i = 1; i < n && ordenado; i++) ordenado = chegada[i - 1] <= chegada[i];
+        if (ordenado) {
+            int[] ordem = new int[n];
+            for (int i = 0; i < n; i++) ordem[i] = i;
+            return ordem;
+        }
+        Integer[] caixa = new Integer[n];
+        for (int i = 0; i < n; i++) caixa[i] = i;
+        Arrays.sort(caixa, Comparator.comparingLong(i -> chegada[i]));
+        int[] ordem = new int[n];
+        for (int i = 0; i < n; i++) ordem[i] = caixa[i];
+        return ordem;
+    }
+
+    // ========================
+    // EXEMPLO
+    // ========================
+    // java AnalisadorRoundRobin [n] [quantum]: o exemplo do script Python e n rajadas aleatórias
+    public static void main(String[] args) {
+        String[] nomes = { "P1", "P2", "P3", "P4" };
+        long[] burst = { 10, 5, 8, 6 };
+        Resultado r = analisar(burst, 3);
+        System.out.println("Processo | Burst Time | Tempo de Espera | Tempo de Retorno");
+        for (int i = 0; i < nomes.length; i++)
+            System.out.printf("%-8s | %10d | %15d | %16d%n", nomes[i], burst[i], r.espera[i], r.retorno[i]);
+        System.out.printf(Locale.ROOT, "%nTempo médio de espera: %.2f%n", r.esperaMedia());
+        System.out.printf(Locale.ROOT, "Tempo médio de retorno: %.2f%n", r.retornoMedio());
+
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        long quantum = args.length > 1 ? Long.parseLong(args[1]) : SimuladorSO.QUANTUM;
+        SplittableRandom rand = new SplittableRandom(1);
+        long[] rajadas = new long[n];
+        long[] chegadas = new long[n];
+        for (int i = 0; i < n; i++) {
+            rajadas[i] = 1 + rand.nextLong(100 * quantum);
+            chegadas[i] = i == 0 ? 0 : chegadas[i - 1] + rand.nextLong(60 * quantum);
+        }
+        long inicio = System.nanoTime();
+        Resultado juntos = analisar(rajadas, quantum);
+        long ms1 = (System.nanoTime() - inicio) / 1_000_000;
+        inicio = System.nanoTime();
+        Resultado espalhados = analisar(chegadas, rajadas, quantum);
+        long ms2 = (System.nanoTime() - inicio) / 1_000_000;
+        System.out.printf(Locale.ROOT, "%n%d processos, quantum %d%n", n, quantum);
+        System.out.printf(Locale.ROOT, "  chegada única: espera média %.1f, retorno médio %.1f (%d ms)%n",
+                          juntos.esperaMedia(), juntos.retornoMedio(), ms1);
+        System.out.printf(Locale.ROOT, "  chegadas espalhadas: espera média %.1f, retorno médio %.1f (%d ms)%n",
+                          espalhados.esperaMedia(), espalhados.retornoMedio(), ms2);
+    }
+}
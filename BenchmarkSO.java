@@ -0,0 +1,292 @@
+import java.util.*;
+
+/**
+ * Benchmarks dos caminhos quentes do repositório, sem dependências externas.
+ *
+ * Cada caso roda algumas iterações de aquecimento (para o JIT compilar) e
+ * depois as iterações medidas; o resultado é média ± desvio padrão do tempo
+ * por operação. Os valores calculados vão para {@link #sumidouro} para o JIT
+ * não eliminar o trabalho.
+ *
+ * Casos:
+ * - escalonador: uma rodada do {@link MotorEventos} em regime (despacho + fim
+ *   da fatia e as E/S que vencem no meio), por nº de processos; a criação
+ *   dos processos e do motor fica fora da medição
+ * - memoria: firstFit/nextFit/bestFit/worstFit/quickFit, o AlocadorBuddy e o
+ *   AlocadorSlab, alocar + desalocar numa memória fragmentada, por tamanho
+ *   da memória
+ * - lru: SimuladorLRU.executaInstrucao só com acertos e só com faltas
+ * - filosofos: refeições por segundo, por nº de filósofos (threads), sem
+ *   tempo de pensar/comer (só a disputa pelos garfos)
+ * - concorrente: operações por segundo do {@link AlocadorConcorrente} com
+ *   uma arena só e com uma arena por thread, de 1 até o maior --threads
+ *
+ * O JMH não aceita benchmarks no pacote padrão, onde o repositório inteiro
+ * está; por isso o harness é próprio. Compilado pelo pom.xml da raiz:
+ *
+ *   mvn -B package
+ *   java -cp target/classes BenchmarkSO [casos e opções, abaixo]
+ *
+ * uso: java BenchmarkSO [escalonador|memoria|lru|filosofos|concorrente ...]
+ *                       [--tamanhos 1024,8192,65536] [--threads 2,5,16]
+ *                       [--aquecimento 5] [--iteracoes 10] [--jmx]
+ *
+ * Com --jmx a memória de cada tamanho e o LRU ficam visíveis no jconsole
+ * enquanto o benchmark roda (ver {@link MonitorSimulacao}).
+ */
+public class BenchmarkSO {
+
+    static volatile long sumidouro;
+
+    interface Caso {
+        // executa uma iteração e devolve quantas operações fez
+        long rodar() throws Exception;
+    }
+
+    static int aquecimento = 5;
+    static int iteracoes = 10;
+    static boolean jmx = false;
+
+    // ========================
+    // MEDIÇÃO
+    // ========================
+    static void medir(String nome, String param, Caso caso) throws Exception {
+        for (int i = 0; i < aquecimento; i++) caso.rodar();
+        double[] nsPorOp = new double[iteracoes];
+        for (int i = 0; i < iteracoes; i++) {
+            long inicio = System.nanoTime();
+            long ops = caso.rodar();
+            nsPorOp[i] = (double) (System.nanoTime() - inicio) / Math.max(1, ops);
+        }
+        double media = 0;
+        for (double v : nsPorOp) media += v;
+        media /= iteracoes;
+        double var = 0;
+        for (double v : nsPorOp) var += (v - media) * (v - media);
+        double desvio = iteracoes > 1 ? Math.sqrt(var / (iteracoes - 1)) : 0;
+        System.out.printf(Locale.ROOT, "%-28s %-10s %12.1f ± %8.1f ns/op%n", nome, param, media, desvio);
+    }
+
+    // ========================
+    // ESCALONADOR
+    // ========================
+    // processos que nunca terminam (E/S e quanta de sobra): depois de iniciar, o motor fica em
+    // regime, e cada iteração mede só RODADAS despachos com os seus fins de fatia e de E/S
+    static final int RODADAS = 100_000;
+
+    static void escalonador(int[] tamanhos) throws Exception {
+        for (int n : tamanhos) {
+            for (String politica : new String[] { "rr", "mlfq", "cfs", "srtf" }) {
+                List<SimuladorSO.Processo> processos = new ArrayList<>(n);
+                for (int i = 0; i < n; i++) processos.add(new SimuladorSO.Processo(i, Long.MAX_VALUE / 4));
+                MotorEventos motor = new MotorEventos(processos, Escalonador.criar(politica, SimuladorSO.QUANTUM),
+                                                      SimuladorSO.PROB_ES, Dispositivo.padrao(), new Random(42), null,
+                                                      null, RegistroEventos.desligado());
+                motor.iniciar(false);
+                medir("escalonador." + politica, "n=" + n, () -> {
+                    int alvo = motor.rodada() + RODADAS;
+                    while (motor.rodada() < alvo) motor.passo();
+                    sumidouro += motor.relogio();
+                    return RODADAS;
+                });
+            }
+        }
+    }
+
+    // ========================
+    // MEMÓRIA
+    // ========================
+    // blocos de 1..16 unidades ocupando a memória toda; metade é liberada ao acaso
+    static GerenciamentoMemoria memoriaFragmentada(int tamanho, Random rand) {
+        GerenciamentoMemoria gm = new GerenciamentoMemoria(tamanho);
+        gm.verboso = false;
+        List<Processo> alocados = new ArrayList<>();
+        int id = 0;
+        while (true) {
+            Processo p = new Processo("F" + id++, 1 + rand.nextInt(16));
+            if (!gm.nextFit(p)) break;
+            alocados.add(p);
+        }
+        for (Processo p : alocados) if (rand.nextBoolean()) gm.desalocar(p);
+        return gm;
+    }
+
+    static void memoria(int[] tamanhos) throws Exception {
+        String[] nomes = GerenciamentoMemoria.NOMES_ESTRATEGIAS;
+        GerenciamentoMemoria.Estrategia[] algoritmos = GerenciamentoMemoria.ESTRATEGIAS;
+        for (int tamanho : tamanhos) {
+            GerenciamentoMemoria gm = memoriaFragmentada(tamanho, new Random(7));
+            if (jmx) MonitorSimulacao.registrar(gm, "m=" + tamanho);
+            int ops = Math.max(16, 4_000_000 / tamanho);
+            Processo[] pedidos = new Processo[ops];
+            Random rand = new Random(11);
+            for (int i = 0; i < ops; i++) pedidos[i] = new Processo("B" + i, 1 + rand.nextInt(8));
+            for (int a = 0; a < algoritmos.length; a++) {
+                GerenciamentoMemoria.Estrategia alg = algoritmos[a];
+                // aloca e libera em seguida: a fragmentação fica a mesma entre as operações
+                medir("memoria." + nomes[a], "m=" + tamanho, () -> {
+                    long ok = 0;
+                    for (Processo p : pedidos) {
+                        if (alg.alocar(gm, p)) {
+                            ok++;
+                            gm.desalocar(p);
+                        }
+                    }
+                    sumidouro += ok;
+                    return pedidos.length;
+                });
+            }
+            AlocadorBuddy buddy = buddyFragmentado(tamanho, new Random(7));
+            medir("memoria.buddy", "m=" + tamanho, () -> {
+                long ok = 0;
+                for (Processo p : pedidos) {
+                    if (buddy.alocar(p)) {
+                        ok++;
+                        buddy.desalocar(p);
+                    }
+                }
+                sumidouro += ok;
+                return pedidos.length;
+            });
+            AlocadorSlab slab = slabFragmentado(tamanho, new Random(7));
+            medir("memoria.slab", "m=" + tamanho, () -> {
+                long ok = 0;
+                for (Processo p : pedidos) {
+                    if (slab.alocar(p)) {
+                        ok++;
+                        slab.desalocar(p);
+                    }
+                }
+                sumidouro += ok;
+                return pedidos.length;
+            });
+        }
+    }
+
+    // mesma receita de memoriaFragmentada, no buddy
+    static AlocadorBuddy buddyFragmentado(int tamanho, Random rand) {
+        AlocadorBuddy buddy = new AlocadorBuddy(tamanho);
+        buddy.verboso = false;
+        List<Processo> alocados = new ArrayList<>();
+        int id = 0;
+        while (true) {
+            Processo p = new Processo("F" + id++, 1 + rand.nextInt(16));
+            if (!buddy.alocar(p)) break;
+            alocados.add(p);
+        }
+        for (Processo p : alocados) if (rand.nextBoolean()) buddy.desalocar(p);
+        return buddy;
+    }
+
+    // slabs de 64 unidades (objetos de até 8, o mesmo intervalo dos pedidos), cheios e depois meio liberados
+    static AlocadorSlab slabFragmentado(int tamanho, Random rand) {
+        GerenciamentoMemoria gm = new GerenciamentoMemoria(tamanho);
+        gm.verboso = false;
+        AlocadorSlab slab = new AlocadorSlab(gm, 64);
+        List<Processo> alocados = new ArrayList<>();
+        int id = 0;
+        while (true) {
+            Processo p = new Processo("F" + id++, 1 + rand.nextInt(8));
+            if (!slab.alocar(p)) break;
+            alocados.add(p);
+        }
+        for (Processo p : alocados) if (rand.nextBoolean()) slab.desalocar(p);
+        return slab;
+    }
+
+    // ========================
+    // LRU
+    // ========================
+    static void lru() throws Exception {
+        SimuladorLRU.verboso = false;
+        if (jmx) MonitorSimulacao.registrarLRU();
+        List<SimuladorLRU.Pagina> swap = SimuladorLRU.criaMatrizSwap();
+        List<SimuladorLRU.Pagina> ram = SimuladorLRU.criaMatrizRAM(swap);
+        LinkedList<Integer> historico = new LinkedList<>();
+        for (int i = 0; i < SimuladorLRU.NUM_PAGINAS_RAM; i++) historico.add(i);
+        int ops = 1_000_000;
+
+        // acertos: só instruções que já estão na RAM
+        int[] residentes = new int[ram.size()];
+        for (int i = 0; i < residentes.length; i++) residentes[i] = ram.get(i).I;
+        medir("lru.executaInstrucao.acerto", "", () -> {
+            for (int i = 0; i < ops; i++) SimuladorLRU.executaInstrucao(ram, swap, historico, residentes[i % residentes.length]);
+            return ops;
+        });
+
+        // faltas: varredura cíclica de todas as páginas, maior que a RAM, sempre falta no LRU
+        medir("lru.executaInstrucao.falta", "", () -> {
+            for (int i = 0; i < ops; i++)
+                SimuladorLRU.executaInstrucao(ram, swap, historico, 1 + i % SimuladorLRU.NUM_PAGINAS_SWAP);
+            return ops;
+        });
+        sumidouro += ram.get(0).D;
+    }
+
+    // ========================
+    // FILÓSOFOS
+    // ========================
+    static void filosofos(int[] threads) throws Exception {
+        DiningPhilosophers.verboso = false;
+        for (int n : threads) {
+            if (n < 2) continue;
+            long janelaMs = 200;
+            Caso caso = () -> DiningPhilosophers.refeicoesEm(n, 0, 0, janelaMs);
+            for (int i = 0; i < aquecimento; i++) caso.rodar();
+            double[] taxas = new double[iteracoes];
+            for (int i = 0; i < iteracoes; i++) taxas[i] = caso.rodar() * 1000.0 / janelaMs;
+            Arrays.sort(taxas);
+            System.out.printf(Locale.ROOT, "%-28s %-10s %12.0f refeições/s (mediana, min %.0f, max %.0f)%n",
+                              "filosofos", "t=" + n, taxas[iteracoes / 2], taxas[0], taxas[iteracoes - 1]);
+        }
+    }
+
+    // ========================
+    // ALOCADOR CONCORRENTE
+    // ========================
+    // 1 arena (uma trava só, como um GerenciamentoMemoria sincronizado) contra uma arena por thread
+    // curva de escala: cada nº de threads de 1 ao maior pedido, não só os pontos da lista
+    static void concorrente(int[] threads) throws Exception {
+        int maxThreads = Arrays.stream(threads).max().orElse(1);
+        for (int t = 1; t <= maxThreads; t++) {
+            int n = t;
+            for (int arenas : new int[] { 1, n }) {
+                long janelaMs = 200;
+                Caso caso = () -> AlocadorConcorrente.operacoesEm(new AlocadorConcorrente(1 << 22, arenas), n, janelaMs);
+                for (int i = 0; i < aquecimento; i++) caso.rodar();
+                double[] taxas = new double[iteracoes];
+                for (int i = 0; i < iteracoes; i++) taxas[i] = caso.rodar() * 1000.0 / janelaMs;
+                Arrays.sort(taxas);
+                System.out.printf(Locale.ROOT, "%-28s %-10s %12.0f ops/s (mediana, min %.0f, max %.0f)%n",
+                                  "memoria.concorrente", "t=" + n + ",a=" + arenas, taxas[iteracoes / 2], taxas[0],
+                                  taxas[iteracoes - 1]);
+                if (arenas == n) break;
+            }
+        }
+    }
+
+    static int[] lista(String s) {
+        return Arrays.stream(s.split(",")).mapToInt(Integer::parseInt).toArray();
+    }
+
+    public static void main(String[] args) throws Exception {
+        Set<String> casos = new LinkedHashSet<>();
+        int[] tamanhos = { 1024, 8192, 65536 };
+        int[] threads = { 2, 5, 16 };
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--tamanhos") && i + 1 < args.length) tamanhos = lista(args[++i]);
+            else if (args[i].equals("--threads") && i + 1 < args.length) threads = lista(args[++i]);
+            else if (args[i].equals("--aquecimento") && i + 1 < args.length) aquecimento = Integer.parseInt(args[++i]);
+            else if (args[i].equals("--iteracoes") && i + 1 < args.length) iteracoes = Integer.parseInt(args[++i]);
+            else if (args[i].equals("--jmx")) jmx = true;
+            else casos.add(args[i]);
+        }
+        if (casos.isEmpty()) casos.addAll(List.of("escalonador", "memoria", "lru", "filosofos", "concorrente"));
+
+        if (casos.contains("escalonador")) escalonador(tamanhos);
+        if (casos.contains("memoria")) memoria(tamanhos);
+        if (casos.contains("lru")) lru();
+        if (casos.contains("filosofos")) filosofos(threads);
+        if (casos.contains("concorrente")) concorrente(threads);
+    }
+}
@@ -0,0 +1,171 @@
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Trace em formato binário compacto.
+ *
+ * Todos os números são varints (LEB128 sem sinal, 7 bits por byte), então
+ * valores pequenos ocupam 1 ou 2 bytes; a chegada é gravada como diferença
+ * para a do processo anterior, que também costuma ser pequena.
+ *
+ * Layout:
+ *   cabeçalho: magico(int) versao(int)
+ *   registro:  dChegada prioridade nRajadas rajada1 ... rajadaN  (varints)
+ *
+ * A leitura usa um FileChannel e um buffer direto de 64 KiB recarregado
+ * conforme é consumido.
+ */
+public class CargaBinaria implements FonteCarga {
+
+    static final int MAGICO = 0x534F5443; // "SOTC"
+    static final int VERSAO = 1;
+    static final int TAM_BUFFER = 1 << 16;
+
+    private final Path caminho;
+    private final FileChannel canal;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(TAM_BUFFER);
+    private long chegada;
+    private int proximoPid;
+    private boolean fim;
+
+    public CargaBinaria(Path caminho) throws IOException {
+        this.caminho = caminho;
+        this.canal = FileChannel.open(caminho, StandardOpenOption.READ);
+        buffer.limit(0);
+        try {
+            if (!garantir(8) || buffer.getInt() != MAGICO) throw new IOException("Não é um trace binário: " + caminho);
+            int versao = buffer.getInt();
+            if (versao != VERSAO) throw new IOException("Versão de trace não suportada: " + versao);
+        } catch (IOException e) {
+            canal.close();
+            throw e;
+        }
+    }
+
+    // deixa pelo menos n bytes no buffer; false se o arquivo acabou antes
+    private boolean garantir(int n) throws IOException {
+        if (buffer.remaining() >= n) return true;
+        buffer.compact();
+        while (buffer.position() < n && !fim) {
+            if (canal.read(buffer) < 0) fim = true;
+        }
+        buffer.flip();
+        return buffer.remaining() >= n;
+    }
+
+    private long lerVarint() throws IOException {
+        long v = 0;
+        for (int desloc = 0; desloc < 64; desloc += 7) {
+            if (!garantir(1)) throw new EOFException(caminho + ": registro truncado");
+            byte b = buffer.get();
+            v |= (long) (b & 0x7F) << desloc;
+            if (b >= 0) return v;
+        }
+        throw new IOException(caminho + ": varint inválido");
+    }
+
+    @Override
+    public SimuladorSO.Processo proximo() throws IOException {
+        if (!garantir(1)) return null;
+        chegada += lerVarint();
+        int prioridade = (int) lerVarint();
+        long n = lerVarint();
+        if (n < 1 || n > Integer.MAX_VALUE - 8) throw new IOException(caminho + ": nº de rajadas inválido: " + n);
+        long[] rajadas = new long[(int) n];
+        for (int i = 0; i < n; i++) rajadas[i] = lerVarint();
+        int pid = proximoPid++;
+        return FonteCarga.processo(pid, chegada, prioridade, rajadas, caminho + ": processo " + pid);
+    }
+
+    @Override
+    public void close() throws IOException {
+        canal.close();
+    }
+
+    // ========================
+    // GRAVAÇÃO
+    // ========================
+    static class Gravador implements Closeable {
+        private final DataOutputStream saida;
+        private long ultimaChegada;
+
+        Gravador(Path caminho) throws IOException {
+            saida = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(caminho), TAM_BUFFER));
+            saida.writeInt(MAGICO);
+            saida.writeInt(VERSAO);
+        }
+
+        void gravar(long chegada, int prioridade, long[] rajadas) throws IOException {
+            if (chegada < ultimaChegada) throw new IOException("Chegadas fora de ordem: " + chegada);
+            escreverVarint(chegada - ultimaChegada);
+            ultimaChegada = chegada;
+            escreverVarint(prioridade);
+            escreverVarint(rajadas.length);
+            for (long r : rajadas) escreverVarint(r);
+        }
+
+        private void escreverVarint(long v) throws IOException {
+            while ((v & ~0x7FL) != 0) {
+                saida.write((int) ((v & 0x7F) | 0x80));
+                v >>>= 7;
+            }
+            saida.write((int) v);
+        }
+
+        @Override
+        public void close() throws IOException {
+            saida.close();
+        }
+    }
+
+    // ========================
+    // FERRAMENTA
+    // ========================
+    // java CargaBinaria converter <entrada.csv> <saida.bin>
+    // java CargaBinaria gerar <n> <saida.csv|saida.bin> [semente]
+    public static void main(String[] args) throws IOException {
+        if (args.length >= 3 && args[0].equals("converter")) {
+            long n = 0;
+            try (CargaCsv csv = new CargaCsv(Paths.get(args[1])); Gravador g = new Gravador(Paths.get(args[2]))) {
+                SimuladorSO.Processo p;
+                while ((p = csv.proximo()) != null) {
+                    g.gravar(p.chegada, p.prioridade, p.rajadas);
+                    n++;
+                }
+            }
+            System.out.println(n + " processos convertidos para " + args[2]);
+        } else if (args.length >= 3 && args[0].equals("gerar")) {
+            long n = Long.parseLong(args[1]);
+            Path destino = Paths.get(args[2]);
+            SplittableRandom rand = new SplittableRandom(args.length > 3 ? Long.parseLong(args[3]) : 1);
+            boolean csv = destino.getFileName().toString().toLowerCase().endsWith(".csv");
+            try (Gravador g = csv ? null : new Gravador(destino);
+                 PrintWriter pw = csv ? new PrintWriter(Files.newBufferedWriter(destino)) : null) {
+                long chegada = 0;
+                long[] rajadas = new long[15];
+                for (long i = 0; i < n; i++) {
+                    chegada += rand.nextInt(SimuladorSO.QUANTUM * 6); // ~75% de uso da CPU
+                    int k = 2 * rand.nextInt(8) + 1;
+                    for (int j = 0; j < k; j++) rajadas[j] = 1 + rand.nextInt(j % 2 == 0 ? 1000 : 3000);
+                    int prioridade = rand.nextInt(4);
+                    if (csv) {
+                        StringBuilder sb = new StringBuilder().append(chegada).append(',').append(prioridade);
+                        for (int j = 0; j < k; j++) sb.append(',').append(rajadas[j]);
+                        pw.println(sb);
+                    } else {
+                        g.gravar(chegada, prioridade, Arrays.copyOf(rajadas, k));
+                    }
+                }
+            }
+            System.out.println(n + " processos gerados em " + destino);
+        } else {
+            System.err.println("Uso: java CargaBinaria converter <entrada.csv> <saida.bin>");
+            System.err.println("     java CargaBinaria gerar <n> <saida.csv|saida.bin> [semente]");
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.Arrays;
+
+/**
+ * Trace em CSV, uma linha por processo:
+ *
+ *   chegada,prioridade,cpu1,es1,cpu2,...,cpuN
+ *
+ * Linhas vazias, começando com '#' ou com um cabeçalho não numérico são
+ * ignoradas. As chegadas devem estar em ordem não decrescente. A leitura é
+ * feita linha a linha por um BufferedReader do NIO e os números são
+ * convertidos à mão, sem split nem objetos por campo.
+ */
+public class CargaCsv implements FonteCarga {
+
+    private final Path caminho;
+    private final BufferedReader entrada;
+    private long[] campos = new long[16];
+    private long numLinha;
+    private long ultimaChegada;
+    private int proximoPid;
+    private boolean cabecalhoVisto;
+
+    public CargaCsv(Path caminho) throws IOException {
+        this.caminho = caminho;
+        this.entrada = Files.newBufferedReader(caminho, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public SimuladorSO.Processo proximo() throws IOException {
+        String linha;
+        while ((linha = entrada.readLine()) != null) {
+            numLinha++;
+            if (linha.isBlank() || linha.charAt(0) == '#') continue;
+            if (!Character.isDigit(linha.strip().charAt(0))) {
+                if (proximoPid == 0 && !cabecalhoVisto) { // cabeçalho antes dos dados
+                    cabecalhoVisto = true;
+                    continue;
+                }
+                throw new IOException(origem() + ": linha inválida");
+            }
+            int n = ler(linha);
+            if (n < 3) throw new IOException(origem() + ": esperado chegada,prioridade,cpu[,es,cpu...]");
+            long chegada = campos[0];
+            if (chegada < ultimaChegada) throw new IOException(origem() + ": chegadas fora de ordem");
+            ultimaChegada = chegada;
+            return FonteCarga.processo(proximoPid++, chegada, (int) campos[1], Arrays.copyOfRange(campos, 2, n), origem());
+        }
+        return null;
+    }
+
+    // números separados por vírgula para dentro de "campos"; devolve quantos
+    private int ler(String linha) throws IOException {
+        int n = 0;
+        long v = 0;
+        boolean temDigito = false;
+        for (int i = 0; i <= linha.length(); i++) {
+            char c = i < linha.length() ? linha.charAt(i) : ',';
+            if (c >= '0' && c <= '9') {
+                if (v > (Long.MAX_VALUE - 9) / 10) throw new IOException(origem() + ": número grande demais");
+                v = v * 10 + (c - '0');
+                temDigito = true;
+            } else if (c == ',') {
+                if (!temDigito) throw new IOException(origem() + ": campo " + (n + 1) + " vazio");
+                if (n == campos.length) campos = Arrays.copyOf(campos, n * 2);
+                campos[n++] = v;
+                v = 0;
+                temDigito = false;
+            } else if (c != ' ' && c != '\t' && c != '\r') {
+                throw new IOException(origem() + ": caractere inválido '" + c + "'");
+            }
+        }
+        return n;
+    }
+
+    private String origem() {
+        return caminho + ":" + numLinha;
+    }
+
+    @Override
+    public void close() throws IOException {
+        entrada.close();
+    }
+}
@@ -0,0 +1,115 @@
+import java.util.Arrays;
+
+/**
+ * Conjunto de int não negativos (PIDs) sem boxing: um vetor denso com os
+ * membros, para iterar, e uma tabela hash de endereçamento aberto (sondagem
+ * linear) valor -> posição no vetor. Adicionar, remover e consultar são O(1)
+ * esperado; remover move o último membro para o buraco, então a ordem de
+ * iteração é a de inserção só até a primeira remoção.
+ *
+ * A memória acompanha o nº de membros (tabela com no máximo metade
+ * ocupada), não o maior valor visto: num trace com PIDs na casa das
+ * centenas de milhões, o conjunto dos bloqueados continua do tamanho dos
+ * bloqueados. Remover desloca para trás os vizinhos da sequência de sondagem,
+ * sem lápides.
+ */
+public class ConjuntoInt {
+
+    private int[] membros;
+    private int[] tabela; // valor + 1 (0 = vazio)
+    private int[] indice; // posição em membros do valor em tabela[i]
+    private int mascara;
+    private int tamanho;
+
+    public ConjuntoInt(int capacidade) {
+        int t = Integer.highestOneBit(Math.max(16, capacidade) * 2 - 1) * 2;
+        membros = new int[t / 2];
+        tabela = new int[t];
+        indice = new int[t];
+        mascara = t - 1;
+    }
+
+    private static int espalhar(int v) {
+        int h = v * 0x9E3779B9;
+        return h ^ h >>> 16;
+    }
+
+    // posição de v na tabela, ou a posição vazia onde ele entraria
+    private int procurar(int v) {
+        int i = espalhar(v) & mascara;
+        while (tabela[i] != 0 && tabela[i] != v + 1) i = i + 1 & mascara;
+        return i;
+    }
+
+    // false se já estava
+    public boolean adicionar(int v) {
+        if ((tamanho + 1) * 2 > tabela.length) redimensionar(tabela.length * 2);
+        int i = procurar(v);
+        if (tabela[i] != 0) return false;
+        if (tamanho == membros.length) membros = Arrays.copyOf(membros, tamanho * 2);
+        membros[tamanho] = v;
+        tabela[i] = v + 1;
+        indice[i] = tamanho++;
+        return true;
+    }
+
+    // false se não estava
+    public boolean remover(int v) {
+        int i = procurar(v);
+        if (tabela[i] == 0) return false;
+        int pos = indice[i], ultimo = membros[--tamanho];
+        if (ultimo != v) {
+            membros[pos] = ultimo;
+            indice[procurar(ultimo)] = pos;
+        }
+        apagar(i);
+        return true;
+    }
+
+    // esvazia a posição i puxando para trás quem sondou por cima dela
+    private void apagar(int i) {
+        for (int j = i + 1 & mascara; tabela[j] != 0; j = j + 1 & mascara) {
+            int ideal = espalhar(tabela[j] - 1) & mascara;
+            if ((j - ideal & mascara) >= (j - i & mascara)) {
+                tabela[i] = tabela[j];
+                indice[i] = indice[j];
+                i = j;
+            }
+        }
+        tabela[i] = 0;
+    }
+
+    private void redimensionar(int t) {
+        tabela = new int[t];
+        indice = new int[t];
+        mascara = t - 1;
+        for (int k = 0; k < tamanho; k++) {
+            int i = procurar(membros[k]);
+            tabela[i] = membros[k] + 1;
+            indice[i] = k;
+        }
+    }
+
+    public boolean contem(int v) {
+        return tabela[procurar(v)] != 0;
+    }
+
+    // i-ésimo membro, 0 <= i < tamanho()
+    public int get(int i) {
+        return membros[i];
+    }
+
+    public int tamanho() {
+        return tamanho;
+    }
+
+    // posições da tabela hash
+    public int capacidade() {
+        return tabela.length;
+    }
+
+    public void limpar() {
+        Arrays.fill(tabela, 0);
+        tamanho = 0;
+    }
+}
@@ -0,0 +1,290 @@
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * Diário (write-ahead log) das transições de estado do escalonador.
+ *
+ * Cada transição vira um registro binário de tamanho fixo acumulado em um
+ * lote na memória; o lote só vai para o disco (escrita sequencial + force)
+ * quando enche, então uma queda perde no máximo um lote de eventos.
+ * De tempos em tempos um checkpoint grava o estado completo (tabela, fila de
+ * prontos, bloqueados, rodada) e zera o diário, que assim não cresce sem
+ * limite.
+ *
+ * Registro: seq(long) relogio(long) rodada(int) pid(int) estado(byte)
+ *           tempoRestante(long) cp(long) nes(int) ncpu(int)
+ *           nivel(int) vruntime(long) dispositivo(int)
+ *
+ * Checkpoint: magico(int) seq(long) rodada(int) terminados(int) relogio(long)
+ *             n(int) n x [pid tempoRestante cp estado nes ncpu nivel vruntime dispositivo]
+ *             politica(UTF) nEstado(int) estadoInterno...
+ *             nProntos(int) pids...  nBloqueados(int) pids...
+ *
+ * Na recuperação o checkpoint é carregado no próprio {@link Escalonador}
+ * (estado interno e prontos) e os registros do diário com seq maior que o
+ * dele são reaplicados em ordem pela política: PRONTO enfileira e
+ * EXECUTANDO chama proximo(), que devolve o mesmo processo da execução
+ * original. Assim nível da MLFQ, vruntime e o mínimo do CFS, promoções e
+ * ordem dos prontos voltam exatamente como estavam (e cada bloqueado volta
+ * ao dispositivo em que estava), e cada registro custa o
+ * mesmo que uma decisão do escalonador (nada de busca linear na fila).
+ */
+public class DiarioTransicoes implements Closeable {
+
+    static final int TAM_REGISTRO = 65;
+    static final int MAGICO_CHECKPOINT = 0x534F4333; // "SOC3" ("SOC2" não tinha o dispositivo, "SOCK" nem a política)
+    static final int LOTE_PADRAO = 256;
+    static final int CHECKPOINT_PADRAO = 10_000;
+
+    private final Path arquivoCheckpoint;
+    private final FileChannel canal;
+    private final ByteBuffer lote;
+    private final int registrosPorCheckpoint;
+
+    private long seq;
+    private int desdeCheckpoint;
+
+    // o que a recuperação devolve além das filas preenchidas
+    static class Progresso {
+        int rodada;
+        int terminados;
+        long relogio;
+        SimuladorSO.Processo executando; // despachado antes da queda (a política já o tirou da fila) ou null
+    }
+
+    public DiarioTransicoes(Path arquivoDiario, Path arquivoCheckpoint,
+                            int registrosPorLote, int registrosPorCheckpoint) throws IOException {
+        this.arquivoCheckpoint = arquivoCheckpoint;
+        this.canal = FileChannel.open(arquivoDiario, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.lote = ByteBuffer.allocateDirect(registrosPorLote * TAM_REGISTRO);
+        this.registrosPorCheckpoint = registrosPorCheckpoint;
+        canal.position(canal.size() - canal.size() % TAM_REGISTRO); // descarta registro rasgado
+        canal.truncate(canal.position());
+    }
+
+    public DiarioTransicoes(Path arquivoDiario, Path arquivoCheckpoint) throws IOException {
+        this(arquivoDiario, arquivoCheckpoint, LOTE_PADRAO, CHECKPOINT_PADRAO);
+    }
+
+    // ========================
+    // ESCRITA
+    // ========================
+    public void registrar(SimuladorSO.Processo p, int rodada, long relogio) throws IOException {
+        lote.putLong(++seq);
+        lote.putLong(relogio);
+        lote.putInt(rodada);
+        lote.putInt(p.pid);
+        lote.put((byte) p.estado.ordinal());
+        lote.putLong(p.tempoRestante);
+        lote.putLong(p.cp);
+        lote.putInt(p.nes);
+        lote.putInt(p.ncpu);
+        lote.putInt(p.nivel);
+        lote.putLong(p.vruntime);
+        lote.putInt(p.dispositivo);
+        desdeCheckpoint++;
+        if (!lote.hasRemaining()) descarregar();
+    }
+
+    // grava o lote pendente e força para o disco
+    public void descarregar() throws IOException {
+        if (lote.position() == 0) return;
+        lote.flip();
+        while (lote.hasRemaining()) canal.write(lote);
+        lote.clear();
+        canal.force(false);
+    }
+
+    public boolean precisaCheckpoint() {
+        return desdeCheckpoint >= registrosPorCheckpoint;
+    }
+
+    /**
+     * Grava o estado completo em um arquivo temporário, troca atomicamente
+     * pelo checkpoint anterior e só então trunca o diário. Se cair entre a
+     * troca e o truncamento, os registros antigos são ignorados pelo seq.
+     */
+    public void checkpoint(int rodada, int terminados, long relogio, Escalonador escalonador,
+                           ConjuntoInt bloqueados, List<SimuladorSO.Processo> processos) throws IOException {
+        List<Integer> prontos = escalonador.pids(); // antes de gravar os processos (ver Escalonador.pids)
+        descarregar();
+        Path tmp = arquivoCheckpoint.resolveSibling(arquivoCheckpoint.getFileName() + ".tmp");
+        try (FileOutputStream fos = new FileOutputStream(tmp.toFile());
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fos))) {
+            out.writeInt(MAGICO_CHECKPOINT);
+            out.writeLong(seq);
+            out.writeInt(rodada);
+            out.writeInt(terminados);
+            out.writeLong(relogio);
+            out.writeInt(processos.size());
+            for (SimuladorSO.Processo p : processos) {
+                out.writeInt(p.pid);
+                out.writeLong(p.tempoRestante);
+                out.writeLong(p.cp);
+                out.writeByte(p.estado.ordinal());
+                out.writeInt(p.nes);
+                out.writeInt(p.ncpu);
+                out.writeInt(p.nivel);
+                out.writeLong(p.vruntime);
+                out.writeInt(p.dispositivo);
+            }
+            out.writeUTF(escalonador.nome());
+            long[] interno = escalonador.estadoInterno();
+            out.writeInt(interno.length);
+            for (long v : interno) out.writeLong(v);
+            out.writeInt(prontos.size());
+            for (int pid : prontos) out.writeInt(pid);
+            out.writeInt(bloqueados.tamanho());
+            for (int i = 0; i < bloqueados.tamanho(); i++) out.writeInt(bloqueados.get(i));
+            out.flush();
+            fos.getFD().sync();
+        }
+        Files.move(tmp, arquivoCheckpoint, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        canal.truncate(0);
+        canal.position(0);
+        desdeCheckpoint = 0;
+    }
+
+    // ========================
+    // RECUPERAÇÃO
+    // ========================
+    /**
+     * Reconstrói processos, o escalonador (que deve estar vazio e ser da
+     * mesma política) e os bloqueados a partir do checkpoint e do diário.
+     * Um processo que estava EXECUTANDO na queda continua EXECUTANDO e volta
+     * em {@link Progresso#executando}: a rodada e o escalonador já contam o
+     * despacho, e o motor só recomeça a fatia dele. Devolve null se não
+     * houver nada para recuperar.
+     */
+    public Progresso recuperar(List<SimuladorSO.Processo> processos, Escalonador escalonador,
+                               ConjuntoInt bloqueados) throws IOException {
+        Progresso prog = new Progresso();
+        boolean achou = false;
+        long seqCheckpoint = 0;
+        SimuladorSO.Estado[] estados = SimuladorSO.Estado.values();
+
+        if (Files.exists(arquivoCheckpoint)) {
+            try (DataInputStream in = new DataInputStream(
+                    new BufferedInputStream(Files.newInputStream(arquivoCheckpoint)))) {
+                if (in.readInt() != MAGICO_CHECKPOINT)
+                    throw new IOException("Checkpoint inválido: " + arquivoCheckpoint);
+                seqCheckpoint = in.readLong();
+                prog.rodada = in.readInt();
+                prog.terminados = in.readInt();
+                prog.relogio = in.readLong();
+                int n = in.readInt();
+                for (int i = 0; i < n; i++) {
+                    SimuladorSO.Processo p = processos.get(in.readInt());
+                    p.tempoRestante = in.readLong();
+                    p.cp = in.readLong();
+                    p.estado = estados[in.readByte()];
+                    p.nes = in.readInt();
+                    p.ncpu = in.readInt();
+                    p.nivel = in.readInt();
+                    p.vruntime = in.readLong();
+                    p.dispositivo = in.readInt();
+                }
+                String politica = in.readUTF();
+                if (!politica.equals(escalonador.nome()))
+                    throw new IOException("Checkpoint é do escalonador " + politica + ", não " + escalonador.nome());
+                long[] interno = new long[in.readInt()];
+                for (int i = 0; i < interno.length; i++) interno[i] = in.readLong();
+                escalonador.restaurarEstado(interno);
+                for (int i = in.readInt(); i > 0; i--) escalonador.enfileirar(processos.get(in.readInt()));
+                bloqueados.limpar();
+                for (int i = in.readInt(); i > 0; i--) bloqueados.adicionar(in.readInt());
+            }
+            achou = true;
+        }
+        seq = seqCheckpoint;
+
+        ByteBuffer buf = ByteBuffer.allocate(LOTE_PADRAO * TAM_REGISTRO);
+        long pos = 0;
+        long fim = canal.size() - canal.size() % TAM_REGISTRO;
+        while (pos < fim) {
+            buf.clear();
+            buf.limit((int) Math.min(buf.capacity(), fim - pos));
+            while (buf.hasRemaining()) {
+                if (canal.read(buf, pos + buf.position()) < 0) break;
+            }
+            buf.flip();
+            pos += buf.limit();
+            while (buf.remaining() >= TAM_REGISTRO) {
+                long s = buf.getLong();
+                if (s <= seqCheckpoint) {
+                    buf.position(buf.position() + TAM_REGISTRO - 8);
+                    continue;
+                }
+                long relogio = buf.getLong();
+                int rodada = buf.getInt();
+                SimuladorSO.Processo p = processos.get(buf.getInt());
+                SimuladorSO.Estado novo = estados[buf.get()];
+                SimuladorSO.Estado antigo = p.estado;
+                p.tempoRestante = buf.getLong();
+                p.cp = buf.getLong();
+                p.nes = buf.getInt();
+                p.ncpu = buf.getInt();
+                p.nivel = buf.getInt();
+                p.vruntime = buf.getLong();
+                p.dispositivo = buf.getInt();
+                aplicar(p, antigo, novo, escalonador, bloqueados, prog);
+                prog.rodada = rodada;
+                prog.relogio = relogio;
+                seq = s;
+                achou = true;
+            }
+        }
+        if (!achou) return null;
+
+        for (SimuladorSO.Processo p : processos)
+            if (p.estado == SimuladorSO.Estado.EXECUTANDO) prog.executando = p;
+        return prog;
+    }
+
+    // os campos do registro já estão em p (nível e vruntime antes de enfileirar, como na execução)
+    private static void aplicar(SimuladorSO.Processo p, SimuladorSO.Estado antigo, SimuladorSO.Estado novo,
+                                Escalonador escalonador, ConjuntoInt bloqueados, Progresso prog) throws IOException {
+        p.estado = novo;
+        switch (novo) {
+            case PRONTO:
+                if (antigo == SimuladorSO.Estado.BLOQUEADO) bloqueados.remover(p.pid);
+                escalonador.enfileirar(p);
+                break;
+            case EXECUTANDO:
+                // a política decide de novo; com o mesmo estado, escolhe o mesmo processo. Só um
+                // processo já terminado (pulado pelo motor sem registro) pode vir antes
+                SimuladorSO.Processo q;
+                while ((q = escalonador.proximo()) != p) {
+                    if (q == null || q.estado != SimuladorSO.Estado.TERMINADO)
+                        throw new IOException("Diário não bate com o escalonador no despacho do PID " + p.pid);
+                }
+                break;
+            case BLOQUEADO:
+                bloqueados.adicionar(p.pid);
+                break;
+            case TERMINADO:
+                prog.terminados++;
+                break;
+        }
+    }
+
+    // apaga diário e checkpoint para começar uma simulação do zero
+    public void reiniciar() throws IOException {
+        lote.clear();
+        canal.truncate(0);
+        canal.position(0);
+        Files.deleteIfExists(arquivoCheckpoint);
+        seq = 0;
+        desdeCheckpoint = 0;
+    }
+
+    @Override
+    public void close() throws IOException {
+        descarregar();
+        canal.close();
+    }
+}
@@ -0,0 +1,132 @@
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+class Fork {
+    private final Lock lock = new ReentrantLock();
+    private final int id;
+
+    public Fork(int id) {
+        this.id = id;
+    }
+
+    public boolean pickUp(String philosopherName) {
+        if (lock.tryLock()) {
+            if (DiningPhilosophers.verboso) System.out.println(philosopherName + " pegou o garfo " + id);
+            return true;
+        }
+        return false;
+    }
+
+    public void putDown(String philosopherName) {
+        lock.unlock();
+        if (DiningPhilosophers.verboso) System.out.println(philosopherName + " colocou o garfo " + id);
+    }
+
+    public int getId() {
+        return id;
+    }
+}
+
+class Philosopher extends Thread {
+    private final Fork leftFork;
+    private final Fork rightFork;
+    private final int id;
+    private final long pensarMs; // tempo máximo; 0 = não dorme
+    private final long comerMs;
+    final AtomicLong refeicoes = new AtomicLong();
+
+    public Philosopher(int id, Fork left, Fork right) {
+        this(id, left, right, 2500, 2000);
+    }
+
+    public Philosopher(int id, Fork left, Fork right, long pensarMs, long comerMs) {
+        this.id = id;
+        this.leftFork = left;
+        this.rightFork = right;
+        this.pensarMs = pensarMs;
+        this.comerMs = comerMs;
+    }
+
+    // entre 1/5 e o máximo (500..2500 ms para pensar, 500..2000 ms para comer no padrão)
+    private static void esperar(long maxMs, long minMs) throws InterruptedException {
+        if (maxMs > 0) Thread.sleep((long) (Math.random() * (maxMs - minMs) + minMs));
+    }
+
+    private void pensar() throws InterruptedException {
+        if (DiningPhilosophers.verboso) System.out.println("Filósofo " + id + " está pensando...");
+        esperar(pensarMs, pensarMs / 5);
+    }
+
+    private void comer() throws InterruptedException {
+        if (DiningPhilosophers.verboso) System.out.println("Filósofo " + id + " está COMENDO 🍝...");
+        refeicoes.incrementAndGet();
+        esperar(comerMs, comerMs / 4);
+    }
+
+    @Override
+    public void run() {
+        try {
+            while (!isInterrupted()) {
+                pensar();
+
+                Fork primeiro = leftFork.getId() < rightFork.getId() ? leftFork : rightFork;
+                Fork segundo = leftFork.getId() < rightFork.getId() ? rightFork : leftFork;
+
+                if (primeiro.pickUp("Filósofo " + id)) {
+                    if (segundo.pickUp("Filósofo " + id)) {
+                        comer();
+                        segundo.putDown("Filósofo " + id);
+                    }
+                    primeiro.putDown("Filósofo " + id);
+                }
+
+            }
+        } catch (InterruptedException e) {
+            if (DiningPhilosophers.verboso) System.out.println("Filósofo " + id + " foi interrompido.");
+        }
+    }
+}
+
+public class DiningPhilosophers {
+    static volatile boolean verboso = true; // false nos benchmarks
+
+    // n filósofos em volta de n garfos, já iniciados
+    static Philosopher[] iniciar(int n, long pensarMs, long comerMs) {
+        Fork[] forks = new Fork[n];
+        Philosopher[] philosophers = new Philosopher[n];
+
+        for (int i = 0; i < n; i++) {
+            forks[i] = new Fork(i);
+        }
+
+        for (int i = 0; i < n; i++) {
+            Fork left = forks[i];
+            Fork right = forks[(i + 1) % n];
+
+            philosophers[i] = new Philosopher(i, left, right, pensarMs, comerMs);
+            philosophers[i].start();
+        }
+        return philosophers;
+    }
+
+    // total de refeições de n filósofos em uma janela de tempo real
+    static long refeicoesEm(int n, long pensarMs, long comerMs, long janelaMs) throws InterruptedException {
+        Philosopher[] philosophers = iniciar(n, pensarMs, comerMs);
+        Thread.sleep(janelaMs);
+        for (Philosopher p : philosophers) p.interrupt();
+        long total = 0;
+        for (Philosopher p : philosophers) {
+            p.join();
+            total += p.refeicoes.get();
+        }
+        return total;
+    }
+
+    public static void main(String[] args) {
+        iniciar(5, 2500, 2000);
+    }
+}
+
+    
+
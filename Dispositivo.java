@@ -0,0 +1,130 @@
+import java.io.*;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Dispositivo de E/S com tempo médio de serviço e profundidade de fila
+ * (quantas requisições ele atende ao mesmo tempo). Requisições além da
+ * profundidade esperam em ordem de chegada.
+ *
+ * O dispositivo só guarda estado e estatísticas; quem agenda o fim de cada
+ * serviço é o simulador ({@link MotorEventos} ou {@link SimuladorThreads}),
+ * na roda de temporizadores.
+ */
+public class Dispositivo {
+
+    final String nome;
+    final long tempoServico; // média, em ciclos
+    final int profundidade;
+
+    private final ArrayDeque<SimuladorSO.Processo> espera = new ArrayDeque<>();
+    private final ArrayDeque<Long> chegadas = new ArrayDeque<>();
+    private int emServico;
+
+    // estatísticas
+    long atendidos;
+    long esperaTotal;   // ciclos parados na fila antes do serviço
+    long ocupadoTotal;  // soma de ciclos x canais ocupados
+    int maiorFila;
+    private long ultimaMudanca;
+
+    public Dispositivo(String nome, long tempoServico, int profundidade) {
+        this.nome = nome;
+        this.tempoServico = tempoServico;
+        this.profundidade = profundidade;
+    }
+
+    private void contabilizar(long agora) {
+        ocupadoTotal += (agora - ultimaMudanca) * emServico;
+        ultimaMudanca = agora;
+    }
+
+    // true se o processo começa a ser atendido já; false se ficou na fila
+    boolean requisitar(SimuladorSO.Processo p, long agora) {
+        contabilizar(agora);
+        if (emServico < profundidade) {
+            emServico++;
+            return true;
+        }
+        espera.addLast(p);
+        chegadas.addLast(agora);
+        maiorFila = Math.max(maiorFila, espera.size());
+        return false;
+    }
+
+    // fim de um serviço; devolve o próximo da fila (que já passa a ser atendido) ou null
+    SimuladorSO.Processo concluir(long agora) {
+        contabilizar(agora);
+        atendidos++;
+        SimuladorSO.Processo prox = espera.pollFirst();
+        if (prox == null) {
+            emServico--;
+        } else {
+            esperaTotal += agora - chegadas.pollFirst();
+        }
+        return prox;
+    }
+
+    double utilizacao(long agora) {
+        contabilizar(agora);
+        return agora == 0 ? 0 : (double) ocupadoTotal / ((double) agora * profundidade);
+    }
+
+    int naFila() {
+        return espera.size();
+    }
+
+    // fila, canais ocupados e estatísticas, para os instantâneos do MotorEventos
+    void gravar(DataOutput out) throws IOException {
+        out.writeUTF(nome);
+        out.writeInt(emServico);
+        out.writeLong(atendidos);
+        out.writeLong(esperaTotal);
+        out.writeLong(ocupadoTotal);
+        out.writeInt(maiorFila);
+        out.writeLong(ultimaMudanca);
+        out.writeInt(espera.size());
+        Iterator<Long> t = chegadas.iterator();
+        for (SimuladorSO.Processo p : espera) {
+            out.writeInt(p.pid);
+            out.writeLong(t.next());
+        }
+    }
+
+    void ler(DataInput in, List<SimuladorSO.Processo> processos) throws IOException {
+        String lido = in.readUTF();
+        if (!lido.equals(nome)) throw new IOException("Instantâneo é do dispositivo " + lido + ", não " + nome);
+        emServico = in.readInt();
+        atendidos = in.readLong();
+        esperaTotal = in.readLong();
+        ocupadoTotal = in.readLong();
+        maiorFila = in.readInt();
+        ultimaMudanca = in.readLong();
+        espera.clear();
+        chegadas.clear();
+        for (int n = in.readInt(); n > 0; n--) {
+            espera.addLast(processos.get(in.readInt()));
+            chegadas.addLast(in.readLong());
+        }
+    }
+
+    static void imprimir(Dispositivo[] dispositivos, long agora) {
+        System.out.println("==== Dispositivos ====");
+        System.out.println("Nome\tServiço\tProf.\tAtendidos\tEspera média\tMaior fila\tUtilização");
+        for (Dispositivo d : dispositivos) {
+            double esperaMedia = d.atendidos == 0 ? 0 : (double) d.esperaTotal / d.atendidos;
+            System.out.printf("%s\t%d\t%d\t%d\t%.1f\t%d\t%.1f%%%n", d.nome, d.tempoServico, d.profundidade,
+                              d.atendidos, esperaMedia, d.maiorFila, 100 * d.utilizacao(agora));
+        }
+        System.out.println("======================\n");
+    }
+
+    static Dispositivo[] padrao() {
+        return new Dispositivo[] {
+            new Dispositivo("disco", 2000, 2),
+            new Dispositivo("rede", 3000, 4),
+            new Dispositivo("terminal", 4000, 8),
+        };
+    }
+}
@@ -0,0 +1,69 @@
+import java.util.List;
+
+/**
+ * Política de escalonamento plugável no {@link MotorEventos}.
+ *
+ * O motor avisa a política em cada transição e pergunta quem roda a seguir
+ * e por quanto tempo. As implementações guardam os processos prontos em
+ * estruturas próprias (filas, árvore, heap) e cada decisão custa no máximo
+ * O(log n) no número de prontos.
+ */
+public interface Escalonador {
+
+    // processo novo, antes do primeiro enfileirar (pode usar p.prioridade)
+    default void aoChegar(SimuladorSO.Processo p) {
+    }
+
+    // processo ficou PRONTO (criação, desbloqueio, fim de quantum ou preempção)
+    void enfileirar(SimuladorSO.Processo p);
+
+    // remove e devolve o próximo a executar, ou null se não houver prontos
+    SimuladorSO.Processo proximo();
+
+    // tamanho da fatia concedida ao processo que acabou de ser escolhido
+    long quantum(SimuladorSO.Processo p);
+
+    // chamados ao fim de uma fatia, antes de o processo voltar (ou não) para a fila
+    void aoExpirarQuantum(SimuladorSO.Processo p, long usado);
+
+    void aoBloquear(SimuladorSO.Processo p, long usado);
+
+    default void aoTerminar(SimuladorSO.Processo p, long usado) {
+    }
+
+    default void aoPreemptar(SimuladorSO.Processo p, long usado) {
+    }
+
+    // se o processo que acabou de ficar pronto deve tomar a CPU de quem está rodando
+    default boolean devePreemptar(SimuladorSO.Processo chegando, SimuladorSO.Processo executando,
+                                  long executadoNaFatia) {
+        return false;
+    }
+
+    int tamanho();
+
+    // PIDs prontos, na ordem em que seriam escolhidos quando isso for barato de obter; pode acertar
+    // estado adiado dos prontos (ex.: nível na MLFQ), então vem antes de gravar os processos
+    List<Integer> pids();
+
+    String nome();
+
+    // contadores internos além da ordem dos prontos (para instantâneos); a ordem
+    // é refeita enfileirando pids() de novo depois de restaurarEstado
+    default long[] estadoInterno() {
+        return new long[0];
+    }
+
+    default void restaurarEstado(long[] estado) {
+    }
+
+    static Escalonador criar(String nome, int quantum) {
+        switch (nome.toLowerCase()) {
+            case "rr":   return new EscalonadorRoundRobin(quantum);
+            case "mlfq": return new EscalonadorMLFQ(quantum);
+            case "cfs":  return new EscalonadorCFS(quantum);
+            case "srtf": return new EscalonadorSRTF();
+            default: throw new IllegalArgumentException("Escalonador desconhecido: " + nome + " (use rr, mlfq, cfs ou srtf)");
+        }
+    }
+}
@@ -0,0 +1,88 @@
+import java.util.*;
+
+/**
+ * Política no estilo do CFS do Linux: cada processo acumula um tempo virtual
+ * de execução (vruntime) e sempre roda o que tem o menor. Os prontos ficam em
+ * uma árvore rubro-negra (TreeSet) ordenada por (vruntime, pid), então
+ * inserir e escolher o próximo custam O(log n).
+ *
+ * A fatia é LATENCIA / nº de prontos, com piso GRANULARIDADE_MIN. Quem volta
+ * de E/S recebe no mínimo (menor vruntime - LATENCIA), para não monopolizar
+ * a CPU depois de dormir muito tempo.
+ */
+public class EscalonadorCFS implements Escalonador {
+
+    private static final Comparator<SimuladorSO.Processo> POR_VRUNTIME =
+            Comparator.<SimuladorSO.Processo>comparingLong(p -> p.vruntime).thenComparingInt(p -> p.pid);
+
+    private final TreeSet<SimuladorSO.Processo> arvore = new TreeSet<>(POR_VRUNTIME);
+    private final long latencia;
+    private final long granularidadeMin;
+    private long minVruntime;
+
+    public EscalonadorCFS(int quantum) {
+        this.latencia = 8L * quantum;
+        this.granularidadeMin = Math.max(1, quantum / 4);
+    }
+
+    @Override
+    public void enfileirar(SimuladorSO.Processo p) {
+        // o vruntime só muda fora da árvore, senão a ordenação do TreeSet quebra
+        p.vruntime = Math.max(p.vruntime, minVruntime - latencia);
+        arvore.add(p);
+    }
+
+    @Override
+    public SimuladorSO.Processo proximo() {
+        SimuladorSO.Processo p = arvore.pollFirst();
+        if (p != null) minVruntime = Math.max(minVruntime, p.vruntime);
+        return p;
+    }
+
+    @Override
+    public long quantum(SimuladorSO.Processo p) {
+        return Math.max(granularidadeMin, latencia / (arvore.size() + 1));
+    }
+
+    @Override
+    public void aoExpirarQuantum(SimuladorSO.Processo p, long usado) {
+        p.vruntime += usado;
+    }
+
+    @Override
+    public void aoBloquear(SimuladorSO.Processo p, long usado) {
+        p.vruntime += usado;
+    }
+
+    @Override
+    public void aoPreemptar(SimuladorSO.Processo p, long usado) {
+        p.vruntime += usado;
+    }
+
+    @Override
+    public int tamanho() {
+        return arvore.size();
+    }
+
+    @Override
+    public List<Integer> pids() {
+        List<Integer> l = new ArrayList<>(arvore.size());
+        for (SimuladorSO.Processo p : arvore) l.add(p.pid);
+        return l;
+    }
+
+    @Override
+    public long[] estadoInterno() {
+        return new long[] { minVruntime };
+    }
+
+    @Override
+    public void restaurarEstado(long[] estado) {
+        minVruntime = estado[0];
+    }
+
+    @Override
+    public String nome() {
+        return "cfs";
+    }
+}
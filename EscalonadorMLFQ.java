@@ -0,0 +1,135 @@
+import java.util.*;
+
+/**
+ * Filas multinível com realimentação (MLFQ).
+ *
+ * - Todo processo começa no nível da sua prioridade (0, a maior, com o menor
+ *   quantum, salvo em cargas de trace).
+ * - Quem gasta o quantum inteiro desce um nível; o quantum dobra a cada nível.
+ * - Quem bloqueia antes do fim do quantum mantém o nível (processos de E/S
+ *   ficam no topo).
+ * - A cada PERIODO_PROMOCAO despachos todos os prontos voltam para o nível
+ *   0, para que os processos de CPU não morram de fome.
+ *
+ * A promoção é preguiçosa: as filas do momento viram trechos do nível 0
+ * (primeiro o antigo nível 0, depois o 1, ...), sem tocar nos processos, e
+ * cada um passa a nivel = 0 quando sai da fila. Promover custa O(NIVEIS) e
+ * escolher o próximo continua O(níveis); a ordem é a mesma de mover todo
+ * mundo para o fim do nível 0 na hora.
+ */
+public class EscalonadorMLFQ implements Escalonador {
+
+    static final int NIVEIS = 4;
+    static final int PERIODO_PROMOCAO = 1000;
+
+    private final ArrayDeque<SimuladorSO.Processo>[] filas;
+    // trechos promovidos, à frente de filas[0]; o nivel dos processos neles ainda é o antigo
+    private final ArrayDeque<ArrayDeque<SimuladorSO.Processo>> promovidos = new ArrayDeque<>();
+    private final int quantumBase;
+    private int tamanho;
+    private int despachos;
+
+    @SuppressWarnings("unchecked")
+    public EscalonadorMLFQ(int quantumBase) {
+        this.quantumBase = quantumBase;
+        filas = (ArrayDeque<SimuladorSO.Processo>[]) new ArrayDeque<?>[NIVEIS];
+        for (int i = 0; i < NIVEIS; i++) filas[i] = new ArrayDeque<>();
+    }
+
+    @Override
+    public void aoChegar(SimuladorSO.Processo p) {
+        p.nivel = Math.min(Math.max(p.prioridade, 0), NIVEIS - 1);
+    }
+
+    @Override
+    public void enfileirar(SimuladorSO.Processo p) {
+        filas[p.nivel].addLast(p);
+        tamanho++;
+    }
+
+    @Override
+    public SimuladorSO.Processo proximo() {
+        if (++despachos % PERIODO_PROMOCAO == 0) promover();
+        while (!promovidos.isEmpty()) {
+            SimuladorSO.Processo p = promovidos.peekFirst().pollFirst();
+            if (p != null) {
+                tamanho--;
+                p.nivel = 0;
+                return p;
+            }
+            promovidos.pollFirst(); // trecho esgotado
+        }
+        for (ArrayDeque<SimuladorSO.Processo> fila : filas) {
+            if (!fila.isEmpty()) {
+                tamanho--;
+                return fila.pollFirst();
+            }
+        }
+        return null;
+    }
+
+    private void promover() {
+        for (int i = 0; i < NIVEIS; i++) {
+            if (filas[i].isEmpty()) continue;
+            promovidos.addLast(filas[i]);
+            filas[i] = new ArrayDeque<>();
+        }
+    }
+
+    @Override
+    public long quantum(SimuladorSO.Processo p) {
+        return (long) quantumBase << p.nivel;
+    }
+
+    @Override
+    public void aoExpirarQuantum(SimuladorSO.Processo p, long usado) {
+        if (p.nivel < NIVEIS - 1) p.nivel++;
+    }
+
+    @Override
+    public void aoBloquear(SimuladorSO.Processo p, long usado) {
+    }
+
+    // quem volta em um nível mais alto que o do processo em execução toma a CPU
+    @Override
+    public boolean devePreemptar(SimuladorSO.Processo chegando, SimuladorSO.Processo executando,
+                                 long executadoNaFatia) {
+        return chegando.nivel < executando.nivel;
+    }
+
+    @Override
+    public int tamanho() {
+        return tamanho;
+    }
+
+    @Override
+    public List<Integer> pids() {
+        List<Integer> l = new ArrayList<>(tamanho);
+        // já que a lista é O(n), acerta o nivel dos promovidos: quem reenfileira pids() (instantâneo,
+        // diário) precisa que eles voltem para o nível 0
+        for (ArrayDeque<SimuladorSO.Processo> trecho : promovidos) {
+            for (SimuladorSO.Processo p : trecho) {
+                p.nivel = 0;
+                l.add(p.pid);
+            }
+        }
+        for (ArrayDeque<SimuladorSO.Processo> fila : filas)
+            for (SimuladorSO.Processo p : fila) l.add(p.pid);
+        return l;
+    }
+
+    @Override
+    public long[] estadoInterno() {
+        return new long[] { despachos };
+    }
+
+    @Override
+    public void restaurarEstado(long[] estado) {
+        despachos = (int) estado[0];
+    }
+
+    @Override
+    public String nome() {
+        return "mlfq";
+    }
+}
@@ -0,0 +1,52 @@
+import java.util.*;
+
+// Round Robin clássico: fila FIFO e quantum fixo
+public class EscalonadorRoundRobin implements Escalonador {
+
+    private final Deque<SimuladorSO.Processo> fila = new ArrayDeque<>();
+    private final int quantum;
+
+    public EscalonadorRoundRobin(int quantum) {
+        this.quantum = quantum;
+    }
+
+    @Override
+    public void enfileirar(SimuladorSO.Processo p) {
+        fila.addLast(p);
+    }
+
+    @Override
+    public SimuladorSO.Processo proximo() {
+        return fila.pollFirst();
+    }
+
+    @Override
+    public long quantum(SimuladorSO.Processo p) {
+        return quantum;
+    }
+
+    @Override
+    public void aoExpirarQuantum(SimuladorSO.Processo p, long usado) {
+    }
+
+    @Override
+    public void aoBloquear(SimuladorSO.Processo p, long usado) {
+    }
+
+    @Override
+    public int tamanho() {
+        return fila.size();
+    }
+
+    @Override
+    public List<Integer> pids() {
+        List<Integer> l = new ArrayList<>(fila.size());
+        for (SimuladorSO.Processo p : fila) l.add(p.pid);
+        return l;
+    }
+
+    @Override
+    public String nome() {
+        return "rr";
+    }
+}
@@ -0,0 +1,60 @@
+import java.util.*;
+
+/**
+ * Shortest Remaining Time First: heap ordenado por tempo restante.
+ *
+ * O processo escolhido roda até terminar ou pedir E/S (a fatia é o próprio
+ * tempo restante). Quando alguém volta de E/S com menos tempo restante do
+ * que o processo em execução ainda tem, o motor faz a preempção.
+ */
+public class EscalonadorSRTF implements Escalonador {
+
+    private final PriorityQueue<SimuladorSO.Processo> heap = new PriorityQueue<>(
+            Comparator.<SimuladorSO.Processo>comparingLong(p -> p.tempoRestante).thenComparingInt(p -> p.pid));
+
+    @Override
+    public void enfileirar(SimuladorSO.Processo p) {
+        heap.add(p);
+    }
+
+    @Override
+    public SimuladorSO.Processo proximo() {
+        return heap.poll();
+    }
+
+    @Override
+    public long quantum(SimuladorSO.Processo p) {
+        return p.tempoRestante;
+    }
+
+    @Override
+    public void aoExpirarQuantum(SimuladorSO.Processo p, long usado) {
+    }
+
+    @Override
+    public void aoBloquear(SimuladorSO.Processo p, long usado) {
+    }
+
+    @Override
+    public boolean devePreemptar(SimuladorSO.Processo chegando, SimuladorSO.Processo executando,
+                                 long executadoNaFatia) {
+        return chegando.tempoRestante < executando.tempoRestante - executadoNaFatia;
+    }
+
+    @Override
+    public int tamanho() {
+        return heap.size();
+    }
+
+    @Override
+    public List<Integer> pids() {
+        List<Integer> l = new ArrayList<>(heap.size());
+        for (SimuladorSO.Processo p : heap) l.add(p.pid);
+        return l;
+    }
+
+    @Override
+    public String nome() {
+        return "srtf";
+    }
+}
@@ -0,0 +1,58 @@
+/**
+ * Fila FIFO de int sobre um vetor circular de capacidade fixa.
+ * Não faz boxing nem aloca nada depois de criada.
+ */
+public class FilaCircularInt {
+
+    private final int[] dados;
+    private int cabeca;
+    private int tamanho;
+
+    public FilaCircularInt(int capacidade) {
+        dados = new int[capacidade];
+    }
+
+    public void adicionar(int valor) {
+        if (tamanho == dados.length) throw new IllegalStateException("Fila cheia (capacidade " + dados.length + ")");
+        int cauda = cabeca + tamanho;
+        if (cauda >= dados.length) cauda -= dados.length;
+        dados[cauda] = valor;
+        tamanho++;
+    }
+
+    public int retirar() {
+        if (tamanho == 0) throw new IllegalStateException("Fila vazia");
+        int valor = dados[cabeca];
+        if (++cabeca == dados.length) cabeca = 0;
+        tamanho--;
+        return valor;
+    }
+
+    // i-ésimo elemento a partir da cabeça
+    public int get(int i) {
+        int idx = cabeca + i;
+        if (idx >= dados.length) idx -= dados.length;
+        return dados[idx];
+    }
+
+    // troca o i-ésimo elemento com a cabeça (para retirar um elemento qualquer em O(1))
+    public void trocarComCabeca(int i) {
+        int idx = cabeca + i;
+        if (idx >= dados.length) idx -= dados.length;
+        int tmp = dados[idx];
+        dados[idx] = dados[cabeca];
+        dados[cabeca] = tmp;
+    }
+
+    public boolean vazia() {
+        return tamanho == 0;
+    }
+
+    public int tamanho() {
+        return tamanho;
+    }
+
+    public int capacidade() {
+        return dados.length;
+    }
+}
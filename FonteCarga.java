@@ -0,0 +1,46 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Origem dos processos de uma carga de trabalho lida de arquivo (trace).
+ *
+ * As implementações leem o arquivo aos poucos e devolvem um processo por
+ * vez, em ordem de chegada; o {@link MotorEventos} só pede o próximo quando o
+ * relógio simulado alcança a chegada do anterior. Assim um trace de
+ * centenas de milhões de processos roda com memória proporcional aos
+ * processos vivos, não ao tamanho do arquivo.
+ *
+ * Cada processo do trace tem chegada, prioridade e rajadas alternadas de CPU
+ * e E/S (cpu, es, cpu, ..., cpu), todas em ciclos.
+ */
+public interface FonteCarga extends Closeable {
+
+    // próximo processo em ordem de chegada, ou null no fim do trace
+    SimuladorSO.Processo proximo() throws IOException;
+
+    // .csv = texto, qualquer outro = binário
+    static FonteCarga abrir(Path caminho) throws IOException {
+        if (caminho.getFileName().toString().toLowerCase().endsWith(".csv")) return new CargaCsv(caminho);
+        return new CargaBinaria(caminho);
+    }
+
+    // valida as rajadas e monta o processo
+    static SimuladorSO.Processo processo(int pid, long chegada, int prioridade, long[] rajadas, String origem)
+            throws IOException {
+        if (rajadas.length % 2 == 0)
+            throw new IOException(origem + ": o número de rajadas deve ser ímpar (cpu, es, ..., cpu)");
+        long cpu = 0;
+        for (int i = 0; i < rajadas.length; i++) {
+            if (rajadas[i] < 1) throw new IOException(origem + ": rajada " + (i + 1) + " deve ser >= 1");
+            if (i % 2 == 0) cpu += rajadas[i];
+        }
+        SimuladorSO.Processo p = new SimuladorSO.Processo(pid, cpu);
+        p.chegada = chegada;
+        p.prioridade = prioridade;
+        p.rajadas = rajadas;
+        p.rajada = 0;
+        p.rajadaRestante = rajadas[0];
+        return p;
+    }
+}
@@ -0,0 +1,37 @@
+import java.util.random.RandomGenerator;
+
+/**
+ * Gerador SplitMix64 com o estado exposto.
+ *
+ * O estado inteiro é um long, então um instantâneo do simulador guarda e
+ * restaura o gerador com exatidão e a continuação sorteia os mesmos números.
+ * java.util.Random e SplittableRandom não deixam ler o estado. nextInt,
+ * nextDouble etc. vêm das implementações padrão de RandomGenerator, todas
+ * derivadas de nextLong.
+ */
+public class GeradorSplitMix implements RandomGenerator {
+
+    private static final long GAMA = 0x9E3779B97F4A7C15L;
+
+    private long estado;
+
+    public GeradorSplitMix(long semente) {
+        this.estado = semente;
+    }
+
+    @Override
+    public long nextLong() {
+        long z = (estado += GAMA);
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    long estado() {
+        return estado;
+    }
+
+    void restaurar(long estado) {
+        this.estado = estado;
+    }
+}
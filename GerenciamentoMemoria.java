@@ -0,0 +1,322 @@
+import java.util.*;
+
+public class GerenciamentoMemoria {
+    private MapaBits memoria; // um bit por unidade (1 = ocupada)
+    private IndiceBuracos indice; // buracos por endereço e por tamanho: os fits não varrem a memória
+    private int ponteiroNextFit = 0; // usado no Next Fit
+    private TreeMap<Integer, Processo> processosAlocados = new TreeMap<>(); // por início, para a compactação
+    boolean verboso = true; // false nos benchmarks: sem mapa impresso a cada operação
+    private MemoriaFisica fisica; // bytes de verdade por trás das unidades (null = só ocupação)
+    private int bytesPorUnidade;
+
+    // estatísticas para o MonitorSimulacao, lidas de outra thread sem trava
+    final MonitorSimulacao.Contador ocupadas = new MonitorSimulacao.Contador();
+    final MonitorSimulacao.Contador buracos = new MonitorSimulacao.Contador();
+    final MonitorSimulacao.Contador alocacoes = new MonitorSimulacao.Contador();
+    final MonitorSimulacao.Contador falhas = new MonitorSimulacao.Contador();
+    final MonitorSimulacao.Contador maiorBuraco = new MonitorSimulacao.Contador();
+    final MonitorSimulacao.Contador somaQuadrados = new MonitorSimulacao.Contador();
+    final MonitorSimulacao.Contador unidadesMovidas = new MonitorSimulacao.Contador();
+
+    // compactação automática quando um fit falha e há memória livre suficiente
+    static final int SEM_COMPACTAR = 0;
+    static final int COMPACTAR_TUDO = 1;       // compacta a memória inteira e tenta de novo
+    static final int COMPACTAR_AOS_POUCOS = 2; // um passo de até orcamentoCompactacao unidades e tenta de novo
+    int compactarAoFalhar = SEM_COMPACTAR;
+    int orcamentoCompactacao = 1024;
+    private int cursorCompactacao = 0; // onde o passo incremental continua
+    long compactacoes, blocosMovidos;
+
+    public GerenciamentoMemoria(int tamanho) {
+        this(tamanho, IndiceBuracos.classesPadrao());
+    }
+
+    // classes do Quick Fit: menor tamanho de cada classe, crescente, começando em 1
+    public GerenciamentoMemoria(int tamanho, int[] classes) {
+        memoria = new MapaBits(tamanho);
+        indice = new IndiceBuracos(tamanho, classes);
+        acertosClasse = new long[classes.length];
+        faltasClasse = new long[classes.length];
+        publicar();
+    }
+
+    public int tamanho() {
+        return (int) memoria.tamanho();
+    }
+
+    // cada unidade passa a ter bytesPorUnidade bytes em "fisica"; a compactação copia os dados
+    public void usarMemoriaFisica(MemoriaFisica fisica, int bytesPorUnidade) {
+        if (bytesPorUnidade < 1 || fisica.tamanho() < (long) tamanho() * bytesPorUnidade)
+            throw new IllegalArgumentException("Memória física menor que " + tamanho() + " x " + bytesPorUnidade + " bytes");
+        this.fisica = fisica;
+        this.bytesPorUnidade = bytesPorUnidade;
+    }
+
+    // acesso aos bytes de um processo alocado
+    public MemoriaFisica.Bloco bloco(Processo p) {
+        if (fisica == null) throw new IllegalStateException("Sem memória física (ver usarMemoriaFisica)");
+        if (p.inicio == -1) throw new IllegalStateException("Processo " + p.id + " não está na memória");
+        return fisica.new Bloco(p, bytesPorUnidade);
+    }
+
+    // imprime estado atual da memória em trechos: "1x5 0x4" = 5 ocupadas e 4 livres
+    public void imprimirMemoria() {
+        System.out.println("Mapa de Memória: " + memoria.resumo(64));
+    }
+
+    // desalocar processo
+    public void desalocar(Processo p) {
+        if (p.inicio == -1) {
+            if (verboso) System.out.println("Processo " + p.id + " não está na memória.");
+            return;
+        }
+        liberar(p.inicio, p.tamanho);
+        p.inicio = -1;
+        if (verboso) {
+            System.out.println("Processo " + p.id + " desalocado.");
+            imprimirMemoria();
+        }
+    }
+
+    // devolve o trecho de um processo alocado em inicio (o AlocadorConcorrente libera em lote
+    // sem o Processo, que já pode ter sido reaproveitado)
+    void liberar(int inicio, int t) {
+        memoria.definir(inicio, inicio + t, false);
+        indice.liberar(inicio, t); // junta-se na hora aos buracos vizinhos
+        processosAlocados.remove(inicio);
+        ocupadas.somar(-t);
+        publicar();
+    }
+
+    // as estratégias de alocação, pelo nome (usadas pelo BenchmarkSO e pelo ReplayAlocacoes)
+    interface Estrategia {
+        boolean alocar(GerenciamentoMemoria gm, Processo p);
+    }
+
+    static final String[] NOMES_ESTRATEGIAS = { "firstFit", "nextFit", "bestFit", "worstFit", "quickFit" };
+    static final Estrategia[] ESTRATEGIAS = { GerenciamentoMemoria::firstFit, GerenciamentoMemoria::nextFit,
+                                              GerenciamentoMemoria::bestFit, GerenciamentoMemoria::worstFit,
+                                              GerenciamentoMemoria::quickFit };
+
+    // First Fit: buraco de menor endereço que comporta o processo
+    public boolean firstFit(Processo p) {
+        long v = indice.visitados();
+        return alocarEm(p, indice.primeiro(0, p.tamanho), v);
+    }
+
+    // Next Fit: como o First Fit, mas a partir de onde parou a última alocação
+    public boolean nextFit(Processo p) {
+        long v = indice.visitados();
+        int pos = IndiceBuracos.NENHUM;
+        int b = indice.buracoEm(ponteiroNextFit);
+        if (b != IndiceBuracos.NENHUM && b + indice.tamanhoDoBuraco(b) - ponteiroNextFit >= p.tamanho)
+            pos = ponteiroNextFit; // cabe a partir do ponteiro, no meio do buraco
+        if (pos == IndiceBuracos.NENHUM) pos = indice.primeiro(ponteiroNextFit + 1, p.tamanho);
+        if (pos == IndiceBuracos.NENHUM) pos = indice.primeiro(0, p.tamanho); // deu a volta
+        if (pos != IndiceBuracos.NENHUM && p.tamanho > 0) ponteiroNextFit = pos;
+        return alocarEm(p, pos, v);
+    }
+
+    // Best Fit: menor buraco que comporta o processo
+    public boolean bestFit(Processo p) {
+        long v = indice.visitados();
+        return alocarEm(p, indice.menorQueCabe(p.tamanho), v);
+    }
+
+    // Worst Fit: maior buraco
+    public boolean worstFit(Processo p) {
+        long v = indice.visitados();
+        return alocarEm(p, indice.maiorTamanho() >= p.tamanho ? indice.maior() : IndiceBuracos.NENHUM, v);
+    }
+
+    // Quick Fit: listas de buracos por classe de tamanho, mantidas pelo índice a cada
+    // alocação e liberação (inclusive das outras estratégias). Acerto = a própria classe
+    // tinha um buraco que cabe entre os primeiros OLHAR_NA_CLASSE; falta = veio de uma
+    // classe maior (qualquer buraco dela cabe) ou, em último caso, do First Fit.
+    static final int OLHAR_NA_CLASSE = 8;
+    private final long[] acertosClasse;
+    private final long[] faltasClasse;
+
+    public boolean quickFit(Processo p) {
+        if (p.tamanho <= 0) return falhou();
+        long v = indice.visitados();
+        int c = indice.classe(p.tamanho);
+        int pos = indice.naClasse(c, p.tamanho, OLHAR_NA_CLASSE);
+        if (pos != IndiceBuracos.NENHUM) {
+            acertosClasse[c]++;
+        } else {
+            faltasClasse[c]++;
+            pos = indice.acimaDaClasse(c);
+            if (pos == IndiceBuracos.NENHUM) pos = indice.primeiro(0, p.tamanho); // fallback
+        }
+        return alocarEm(p, pos, v);
+    }
+
+    public void imprimirQuickFit() {
+        System.out.println("Classe\tAcertos\tFaltas");
+        for (int c = 0; c < acertosClasse.length; c++) {
+            if (acertosClasse[c] + faltasClasse[c] == 0) continue;
+            int de = indice.limite(c);
+            String nome = c + 1 < indice.classes() ? de + ".." + (indice.limite(c + 1) - 1) : de + "+";
+            System.out.println(nome + "\t" + acertosClasse[c] + "\t" + faltasClasse[c]);
+        }
+    }
+
+    // funções auxiliares
+    private void alocar(Processo p, int inicio) {
+        memoria.definir(inicio, inicio + p.tamanho, true);
+        p.inicio = inicio;
+        processosAlocados.put(inicio, p);
+        indice.ocupar(inicio, p.tamanho); // o buraco some ou vira um ou dois menores
+        ocupadas.somar(p.tamanho);
+        alocacoes.somar(1);
+        publicar();
+        if (verboso) {
+            System.out.println("Processo " + p.id + " alocado em " + inicio);
+            imprimirMemoria();
+        }
+    }
+
+    // custo da busca = nós do índice olhados desde "visitados" (a compactação não entra)
+    long custoBusca;
+
+    private boolean alocarEm(Processo p, int inicio, long visitados) {
+        custoBusca += indice.visitados() - visitados;
+        if (p.tamanho <= 0) return falhou();
+        if (inicio == IndiceBuracos.NENHUM && compactarAoFalhar != SEM_COMPACTAR && indice.livre() >= p.tamanho) {
+            if (compactarAoFalhar == COMPACTAR_TUDO) compactar();
+            else compactarIncremental(orcamentoCompactacao);
+            inicio = indice.menorQueCabe(p.tamanho);
+        }
+        if (inicio == IndiceBuracos.NENHUM) return falhou();
+        alocar(p, inicio);
+        return true;
+    }
+
+    private boolean falhou() {
+        falhas.somar(1);
+        return false;
+    }
+
+    private void publicar() {
+        buracos.definir(indice.quantidade());
+        maiorBuraco.definir(indice.maiorTamanho());
+        somaQuadrados.definir(indice.somaQuadrados());
+    }
+
+    // ========================
+    // COMPACTAÇÃO
+    // ========================
+    // desliza os processos para o começo da memória, em ordem de endereço; os fixos ficam
+    // onde estão e os seguintes encostam neles. Devolve as unidades movidas.
+    public long compactar() {
+        cursorCompactacao = 0;
+        return passoCompactacao(Long.MAX_VALUE);
+    }
+
+    // continua a passada de onde parou, movendo até "orcamento" unidades (pelo menos um
+    // bloco); no fim da memória a próxima chamada recomeça do início
+    public long compactarIncremental(int orcamento) {
+        return passoCompactacao(orcamento);
+    }
+
+    private long passoCompactacao(long orcamento) {
+        int destino = cursorCompactacao;
+        Map.Entry<Integer, Processo> e = processosAlocados.lowerEntry(destino);
+        if (e != null) destino = Math.max(destino, e.getKey() + e.getValue().tamanho); // alocado por cima do cursor
+        long movidas = 0;
+        e = processosAlocados.ceilingEntry(destino);
+        while (e != null) {
+            Processo q = e.getValue();
+            if (!q.fixo && q.inicio > destino) {
+                if (movidas > 0 && movidas + q.tamanho > orcamento) break;
+                mover(q, destino);
+                movidas += q.tamanho;
+            }
+            destino = q.inicio + q.tamanho;
+            e = processosAlocados.ceilingEntry(destino);
+        }
+        cursorCompactacao = e == null ? 0 : destino;
+        compactacoes++;
+        unidadesMovidas.somar(movidas);
+        publicar();
+        if (verboso) {
+            System.out.println("Compactação: " + movidas + " unidades movidas.");
+            imprimirMemoria();
+        }
+        return movidas;
+    }
+
+    // [destino, q.inicio) está livre; os trechos podem se sobrepor
+    private void mover(Processo q, int destino) {
+        if (fisica != null)
+            fisica.copiar((long) q.inicio * bytesPorUnidade, (long) destino * bytesPorUnidade, (long) q.tamanho * bytesPorUnidade);
+        memoria.definir(q.inicio, q.inicio + q.tamanho, false);
+        indice.liberar(q.inicio, q.tamanho);
+        indice.ocupar(destino, q.tamanho);
+        memoria.definir(destino, destino + q.tamanho, true);
+        processosAlocados.remove(q.inicio);
+        q.inicio = destino;
+        processosAlocados.put(destino, q);
+        blocosMovidos++;
+    }
+
+    // ========================
+    // FRAGMENTAÇÃO
+    // ========================
+    // buracos de 1 unidade (os que nenhum pedido aproveita bem)
+    public int calcularFragmentacaoExterna() {
+        return indice.naFaixa(0);
+    }
+
+    // 1 - maior buraco / memória livre: 0 = todo o espaço livre é contíguo
+    public double fragmentacaoMaiorBuraco() {
+        long livres = indice.livre();
+        return livres == 0 ? 0 : 1.0 - (double) indice.maiorTamanho() / livres;
+    }
+
+    // considera todos os buracos, não só o maior (ver IndiceBuracos.indiceFragmentacao)
+    public double indiceFragmentacao() {
+        return indice.indiceFragmentacao();
+    }
+
+    public void imprimirFragmentacao() {
+        System.out.printf(Locale.ROOT, "Livre: %d  Buracos: %d  Maior: %d  Frag. (maior buraco): %.3f  Índice: %.3f%n",
+                          indice.livre(), indice.quantidade(), indice.maiorTamanho(), fragmentacaoMaiorBuraco(),
+                          indiceFragmentacao());
+        StringBuilder sb = new StringBuilder("Buracos por tamanho:");
+        for (int i = 0; i < indice.faixas(); i++) {
+            if (indice.naFaixa(i) == 0) continue;
+            sb.append(' ').append(1 << i);
+            if (i > 0) sb.append("..").append((2 << i) - 1);
+            sb.append(':').append(indice.naFaixa(i));
+        }
+        System.out.println(sb);
+        System.out.println("Compactações: " + compactacoes + "  Blocos movidos: " + blocosMovidos
+                           + "  Unidades movidas: " + unidadesMovidas.ler()
+                           + (fisica == null ? "" : "  Bytes copiados: " + fisica.bytesCopiados));
+    }
+
+    // exemplo de uso
+    public static void main(String[] args) {
+        GerenciamentoMemoria gm = new GerenciamentoMemoria(32);
+
+        Processo p1 = new Processo("P1", 5);
+        Processo p2 = new Processo("P2", 4);
+        Processo p3 = new Processo("P3", 2);
+
+        gm.imprimirMemoria();
+
+        gm.firstFit(p1);
+        gm.nextFit(p2);
+        gm.bestFit(p3);
+
+        gm.desalocar(p2);
+
+        System.out.println("Fragmentação externa: " + gm.calcularFragmentacaoExterna());
+
+        gm.compactar();
+        gm.imprimirFragmentacao();
+    }
+}
+
@@ -0,0 +1,84 @@
+import java.io.*;
+import java.nio.file.*;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Grava os instantâneos do {@link MotorEventos} em uma thread de fundo.
+ *
+ * O laço do motor só copia o estado para um byte[] (feito entre dois
+ * eventos, que o laço não toca mais; pausa O(n), ver
+ * {@link MotorEventos#instantaneo}) e entrega aqui; a escrita no disco
+ * (arquivo temporário + move atômico) acontece fora do laço. Se o disco
+ * ficar para trás, só o instantâneo mais novo espera para ser gravado: os
+ * intermediários são descartados e a fila não cresce.
+ */
+public class GravadorInstantaneos implements Closeable {
+
+    private final Path destino;
+    private final Path temporario;
+    private final AtomicReference<byte[]> pendente = new AtomicReference<>();
+    private final Thread escritor;
+    private volatile boolean parar;
+    private volatile IOException erro;
+    private volatile long gravados;
+
+    public GravadorInstantaneos(Path destino) {
+        this.destino = destino;
+        this.temporario = destino.resolveSibling(destino.getFileName() + ".tmp");
+        this.escritor = new Thread(this::escrever, "gravador-instantaneos");
+        escritor.setDaemon(true);
+        escritor.start();
+    }
+
+    // chamado pelo laço do motor; não bloqueia
+    public void enviar(byte[] dados) throws IOException {
+        if (erro != null) throw erro;
+        pendente.set(dados);
+        synchronized (this) {
+            notifyAll();
+        }
+    }
+
+    private void escrever() {
+        while (true) {
+            byte[] dados = pendente.getAndSet(null);
+            if (dados == null) {
+                if (parar) return;
+                synchronized (this) {
+                    try {
+                        if (pendente.get() == null && !parar) wait(100);
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                continue;
+            }
+            try {
+                Files.write(temporario, dados);
+                Files.move(temporario, destino, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                gravados++;
+            } catch (IOException e) {
+                erro = e;
+            }
+        }
+    }
+
+    public long gravados() {
+        return gravados;
+    }
+
+    // espera o último instantâneo enviado chegar ao disco
+    @Override
+    public void close() throws IOException {
+        parar = true;
+        synchronized (this) {
+            notifyAll();
+        }
+        try {
+            escritor.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (erro != null) throw erro;
+    }
+}
@@ -0,0 +1,137 @@
+import java.io.*;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+
+/**
+ * Histograma com baldes logarítmicos (log-linear, no estilo HdrHistogram).
+ *
+ * Valores abaixo de 2^SUB_BITS têm balde próprio; acima disso cada potência
+ * de 2 é dividida em 2^(SUB_BITS-1) baldes, então o erro relativo fica
+ * abaixo de 2^-(SUB_BITS-1) (~1,6% com SUB_BITS = 7) para qualquer valor de
+ * 0 a Long.MAX_VALUE, com um vetor fixo de ~3800 contadores (30 KB).
+ * Registrar é um numberOfLeadingZeros, um deslocamento e um incremento.
+ *
+ * Um só thread registra, mas qualquer outra pode ler (total, média,
+ * percentis) enquanto isso, sem trava: as escritas e leituras dos contadores
+ * são opacas (VarHandle), que no x86 custam o mesmo que as normais e nunca
+ * deixam ver um long pela metade. A leitura concorrente é aproximada: pode
+ * pegar um registro no meio (contagem já somada, total ainda não).
+ */
+public class HistogramaLog {
+
+    static final int SUB_BITS = 7;
+    private static final int SUB = 1 << SUB_BITS;
+    private static final int MEIO = SUB >> 1;
+    private static final VarHandle CONTAGEM = MethodHandles.arrayElementVarHandle(long[].class);
+    private static final VarHandle TOTAL, SOMA, MAX, MIN;
+    static {
+        try {
+            MethodHandles.Lookup l = MethodHandles.lookup();
+            TOTAL = l.findVarHandle(HistogramaLog.class, "total", long.class);
+            SOMA = l.findVarHandle(HistogramaLog.class, "soma", long.class);
+            MAX = l.findVarHandle(HistogramaLog.class, "max", long.class);
+            MIN = l.findVarHandle(HistogramaLog.class, "min", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    final String nome;
+    private final long[] contagens;
+    private long total;
+    private long soma;
+    private long max;
+    private long min = Long.MAX_VALUE;
+
+    public HistogramaLog(String nome) {
+        this.nome = nome;
+        int kMax = 63 - SUB_BITS + 1;
+        contagens = new long[kMax * MEIO + SUB];
+    }
+
+    private static int indice(long v) {
+        int k = Math.max(0, 63 - Long.numberOfLeadingZeros(v) - SUB_BITS + 1);
+        return k * MEIO + (int) (v >>> k);
+    }
+
+    // maior valor que cai no balde
+    private static long limiteSuperior(int idx) {
+        int k = idx < SUB ? 0 : (idx - MEIO) / MEIO;
+        long base = (long) (idx - k * MEIO) << k;
+        return base + (1L << k) - 1;
+    }
+
+    public void registrar(long v) {
+        if (v < 0) v = 0;
+        int i = indice(v);
+        CONTAGEM.setOpaque(contagens, i, contagens[i] + 1);
+        TOTAL.setOpaque(this, total + 1);
+        SOMA.setOpaque(this, soma + v);
+        if (v > max) MAX.setOpaque(this, v);
+        if (v < min) MIN.setOpaque(this, v);
+    }
+
+    public void juntar(HistogramaLog outro) {
+        for (int i = 0; i < contagens.length; i++) contagens[i] += outro.contagens[i];
+        total += outro.total;
+        soma += outro.soma;
+        max = Math.max(max, outro.max);
+        min = Math.min(min, outro.min);
+    }
+
+    // valor no percentil p (0 < p <= 100), com o erro relativo do balde
+    public long percentil(double p) {
+        long n = total(), maior = max();
+        if (n == 0) return 0;
+        long alvo = Math.max(1, (long) Math.ceil(p / 100.0 * n));
+        long acumulado = 0;
+        for (int i = 0; i < contagens.length; i++) {
+            acumulado += (long) CONTAGEM.getOpaque(contagens, i);
+            if (acumulado >= alvo) return Math.min(limiteSuperior(i), maior);
+        }
+        return maior;
+    }
+
+    // só os baldes não vazios
+    void gravar(DataOutput out) throws IOException {
+        out.writeLong(total);
+        out.writeLong(soma);
+        out.writeLong(max);
+        out.writeLong(min);
+        int n = 0;
+        for (long c : contagens) if (c != 0) n++;
+        out.writeInt(n);
+        for (int i = 0; i < contagens.length; i++) {
+            if (contagens[i] == 0) continue;
+            out.writeShort(i);
+            out.writeLong(contagens[i]);
+        }
+    }
+
+    void ler(DataInput in) throws IOException {
+        total = in.readLong();
+        soma = in.readLong();
+        max = in.readLong();
+        min = in.readLong();
+        Arrays.fill(contagens, 0);
+        for (int n = in.readInt(); n > 0; n--) contagens[in.readUnsignedShort()] = in.readLong();
+    }
+
+    public long total() {
+        return (long) TOTAL.getOpaque(this);
+    }
+
+    public double media() {
+        long n = total();
+        return n == 0 ? 0 : (double) (long) SOMA.getOpaque(this) / n;
+    }
+
+    public long max() {
+        return (long) MAX.getOpaque(this);
+    }
+
+    public long min() {
+        return total() == 0 ? 0 : (long) MIN.getOpaque(this);
+    }
+}
@@ -0,0 +1,560 @@
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Buracos (trechos livres maximais) da memória, indexados por endereço e
+ * por tamanho, para o {@link GerenciamentoMemoria} não varrer a memória.
+ *
+ * São duas treaps em vetores de int/long (sem um objeto por nó):
+ * - por endereço, com o maior tamanho de cada subárvore: o primeiro buraco
+ *   a partir de um endereço que comporta t unidades sai numa descida só
+ *   (first fit, next fit);
+ * - por (tamanho, endereço): o menor buraco >= t e o maior de todos
+ *   (best fit, worst fit).
+ *
+ * Os nós do índice por endereço também estão em listas segregadas por
+ * classe de tamanho (encadeadas por vetores de int, com um bit por classe
+ * não vazia), para o quick fit achar um buraco em O(1).
+ *
+ * {@link #ocupar} parte o buraco que contém o trecho e {@link #liberar}
+ * junta o trecho devolvido com os vizinhos na hora, então os buracos estão
+ * sempre coalescidos, e cada mudança move o nó entre as listas. Tudo
+ * O(log n) esperado no nº de buracos.
+ *
+ * A distribuição dos tamanhos (faixas de potência de 2) e a soma dos
+ * quadrados dos tamanhos são atualizadas junto, para as métricas de
+ * fragmentação saírem em O(1).
+ */
+public class IndiceBuracos {
+
+    static final int NENHUM = -1;
+
+    // treap com chave long, valor int e o maior valor de cada subárvore
+    static final class Treap {
+        private long[] chave = new long[16];
+        private int[] valor = new int[16];
+        private int[] maxValor = new int[16];
+        private int[] prioridade = new int[16];
+        private int[] esq = new int[16];
+        private int[] dir = new int[16];
+        private int raiz;      // 0 = vazio; o nó 0 é sentinela
+        private int proximo = 1;
+        private int livres;    // nós removidos, encadeados por esq
+        private int tamanho;
+        private final SplittableRandom rand;
+        long visitados; // nós olhados pelas buscas (piso, teto, ultimo, primeiroCom)
+
+        Treap(long semente) {
+            rand = new SplittableRandom(semente);
+            maxValor[0] = Integer.MIN_VALUE;
+        }
+
+        int tamanho() {
+            return tamanho;
+        }
+
+        private int novo(long k, int v) {
+            int n;
+            if (livres != 0) {
+                n = livres;
+                livres = esq[n];
+            } else {
+                if (proximo == chave.length) crescer();
+                n = proximo++;
+            }
+            chave[n] = k;
+            valor[n] = v;
+            maxValor[n] = v;
+            prioridade[n] = rand.nextInt();
+            esq[n] = dir[n] = 0;
+            return n;
+        }
+
+        private void crescer() {
+            int c = chave.length * 2;
+            chave = Arrays.copyOf(chave, c);
+            valor = Arrays.copyOf(valor, c);
+            maxValor = Arrays.copyOf(maxValor, c);
+            prioridade = Arrays.copyOf(prioridade, c);
+            esq = Arrays.copyOf(esq, c);
+            dir = Arrays.copyOf(dir, c);
+        }
+
+        private void atualizar(int n) {
+            maxValor[n] = Math.max(valor[n], Math.max(maxValor[esq[n]], maxValor[dir[n]]));
+        }
+
+        // junta a e b, com todas as chaves de a menores que as de b
+        private int juntar(int a, int b) {
+            if (a == 0) return b;
+            if (b == 0) return a;
+            if (prioridade[a] > prioridade[b]) {
+                dir[a] = juntar(dir[a], b);
+                atualizar(a);
+                return a;
+            }
+            esq[b] = juntar(a, esq[b]);
+            atualizar(b);
+            return b;
+        }
+
+        // divide em chaves < k (ladoEsq) e >= k (ladoDir)
+        private int ladoEsq, ladoDir;
+
+        private void dividir(int n, long k) {
+            if (n == 0) {
+                ladoEsq = ladoDir = 0;
+            } else if (chave[n] < k) {
+                dividir(dir[n], k);
+                dir[n] = ladoEsq;
+                atualizar(n);
+                ladoEsq = n;
+            } else {
+                dividir(esq[n], k);
+                esq[n] = ladoDir;
+                atualizar(n);
+                ladoDir = n;
+            }
+        }
+
+        // caminho da raiz até o ponto alterado, para refazer maxValor de baixo para cima
+        private int[] caminho = new int[64];
+        private int profundidade;
+
+        private void empilhar(int n) {
+            if (profundidade == caminho.length) caminho = Arrays.copyOf(caminho, profundidade * 2);
+            caminho[profundidade++] = n;
+        }
+
+        private void refazerCaminho() {
+            while (profundidade > 0) atualizar(caminho[--profundidade]);
+        }
+
+        // pendura "filho" no lugar do antigo filho de "pai" do lado de k
+        private void ligar(int pai, long k, int filho) {
+            if (pai == 0) raiz = filho;
+            else if (k < chave[pai]) esq[pai] = filho;
+            else dir[pai] = filho;
+        }
+
+        // desce até a prioridade do novo nó e divide só a subárvore dali para baixo
+        int inserir(long k, int v) {
+            int novo = novo(k, v);
+            int pai = 0, n = raiz;
+            profundidade = 0;
+            while (n != 0 && prioridade[n] >= prioridade[novo]) {
+                empilhar(n);
+                pai = n;
+                n = k < chave[n] ? esq[n] : dir[n];
+            }
+            dividir(n, k);
+            esq[novo] = ladoEsq;
+            dir[novo] = ladoDir;
+            atualizar(novo);
+            ligar(pai, k, novo);
+            refazerCaminho();
+            tamanho++;
+            return novo;
+        }
+
+        // o nó dá lugar à junção dos seus dois filhos; devolve o nó removido (ou 0)
+        int remover(long k) {
+            int n = descer(k);
+            if (n == 0) {
+                profundidade = 0;
+                return 0;
+            }
+            profundidade--; // o próprio nó sai do caminho
+            int pai = profundidade == 0 ? 0 : caminho[profundidade - 1];
+            ligar(pai, k, juntar(esq[n], dir[n]));
+            esq[n] = livres;
+            livres = n;
+            refazerCaminho();
+            tamanho--;
+            return n;
+        }
+
+        // troca chave e valor de um nó sem mudar a ordem (a nova chave fica entre os mesmos vizinhos)
+        int alterar(long k, long novaChave, int novoValor) {
+            int n = descer(k);
+            if (n == 0) throw new IllegalStateException("Chave ausente: " + k);
+            chave[n] = novaChave;
+            valor[n] = novoValor;
+            refazerCaminho();
+            return n;
+        }
+
+        // nó com a chave k (0 se não houver); o caminho até ele fica empilhado
+        private int descer(long k) {
+            profundidade = 0;
+            int n = raiz;
+            while (n != 0) {
+                empilhar(n);
+                if (k == chave[n]) return n;
+                n = k < chave[n] ? esq[n] : dir[n];
+            }
+            return 0;
+        }
+
+        // nó da maior chave <= k, ou 0
+        int piso(long k) {
+            int n = raiz, achado = 0;
+            while (n != 0) {
+                visitados++;
+                if (chave[n] <= k) {
+                    achado = n;
+                    n = dir[n];
+                } else {
+                    n = esq[n];
+                }
+            }
+            return achado;
+        }
+
+        // nó da menor chave >= k, ou 0
+        int teto(long k) {
+            int n = raiz, achado = 0;
+            while (n != 0) {
+                visitados++;
+                if (chave[n] >= k) {
+                    achado = n;
+                    n = esq[n];
+                } else {
+                    n = dir[n];
+                }
+            }
+            return achado;
+        }
+
+        int ultimo() {
+            int n = raiz;
+            while (n != 0 && dir[n] != 0) {
+                visitados++;
+                n = dir[n];
+            }
+            return n;
+        }
+
+        // nó de menor chave >= aPartirDe com valor >= minimo, ou 0
+        int primeiroCom(long aPartirDe, int minimo) {
+            return primeiroCom(raiz, aPartirDe, minimo);
+        }
+
+        private int primeiroCom(int n, long aPartirDe, int minimo) {
+            while (n != 0 && maxValor[n] >= minimo) {
+                visitados++;
+                if (chave[n] < aPartirDe) {
+                    n = dir[n];
+                    continue;
+                }
+                int r = primeiroCom(esq[n], aPartirDe, minimo);
+                if (r != 0) return r;
+                if (valor[n] >= minimo) return n;
+                n = dir[n];
+            }
+            return 0;
+        }
+
+        long chave(int n) {
+            return chave[n];
+        }
+
+        int valor(int n) {
+            return valor[n];
+        }
+    }
+
+    private final Treap porEndereco = new Treap(1); // início -> tamanho
+    private final Treap porTamanho = new Treap(2);  // (tamanho << 32 | início)
+    private long livre;
+
+    // listas segregadas: classe c = buracos com tamanho em [limites[c], limites[c + 1]),
+    // listas duplamente encadeadas dos nós de porEndereco
+    private final int[] limites;
+    private final int[] cabeca;
+    private int[] anterior = new int[16], seguinte = new int[16], classeDoNo = new int[16];
+    private long naoVazias; // bit c: a classe c tem algum buraco
+
+    // faixa i = buracos com tamanho em [2^i, 2^(i+1))
+    private final int[] porFaixa = new int[31];
+    private long somaQuadrados;
+    private long visitadosListas; // nós olhados nas listas segregadas
+
+    // tamanhos 1..15 com classe própria, depois uma classe por potência de 2 (16, 32, ..., 2^30)
+    static int[] classesPadrao() {
+        int[] c = new int[15 + 27];
+        for (int i = 0; i < 15; i++) c[i] = i + 1;
+        for (int i = 0; i < 27; i++) c[15 + i] = 16 << i;
+        return c;
+    }
+
+    public IndiceBuracos(int tamanhoMemoria) {
+        this(tamanhoMemoria, classesPadrao());
+    }
+
+    // limites: menores tamanhos de cada classe, crescentes, começando em 1 (até 64 classes)
+    public IndiceBuracos(int tamanhoMemoria, int[] limites) {
+        if (limites.length == 0 || limites.length > 64 || limites[0] != 1)
+            throw new IllegalArgumentException("Classes devem começar em 1 e ser no máximo 64");
+        for (int i = 1; i < limites.length; i++)
+            if (limites[i] <= limites[i - 1]) throw new IllegalArgumentException("Classes fora de ordem: " + limites[i]);
+        this.limites = limites.clone();
+        this.cabeca = new int[limites.length];
+        if (tamanhoMemoria > 0) {
+            novoBuraco(0, tamanhoMemoria);
+            livre = tamanhoMemoria;
+        }
+    }
+
+    private static long chaveTamanho(int inicio, int tamanho) {
+        return (long) tamanho << 32 | inicio;
+    }
+
+    // buraco novo nos dois índices (quem chama acerta "livre")
+    private void novoBuraco(int inicio, int tamanho) {
+        entrarClasse(porEndereco.inserir(inicio, tamanho), tamanho);
+        porTamanho.inserir(chaveTamanho(inicio, tamanho), tamanho);
+        contar(tamanho, 1);
+    }
+
+    // mudanças no índice por endereço passam por aqui para as listas e a distribuição seguirem junto
+    private void removerEndereco(int inicio, int tamanho) {
+        int n = porEndereco.remover(inicio);
+        if (n != 0) sairClasse(n);
+        contar(tamanho, -1);
+    }
+
+    private void alterarEndereco(int inicio, int tamanho, int novoInicio, int novoTamanho) {
+        int n = porEndereco.alterar(inicio, novoInicio, novoTamanho);
+        if (classeDoNo[n] != classe(novoTamanho)) {
+            sairClasse(n);
+            entrarClasse(n, novoTamanho);
+        }
+        contar(tamanho, -1);
+        contar(novoTamanho, 1);
+    }
+
+    private void contar(int tamanho, int d) {
+        porFaixa[31 - Integer.numberOfLeadingZeros(tamanho)] += d;
+        somaQuadrados += d * (long) tamanho * tamanho;
+    }
+
+    // ========================
+    // LISTAS SEGREGADAS
+    // ========================
+    // classe de um tamanho: maior c com limites[c] <= t
+    public int classe(int t) {
+        int i = Arrays.binarySearch(limites, Math.max(1, t));
+        return i >= 0 ? i : -i - 2;
+    }
+
+    public int classes() {
+        return limites.length;
+    }
+
+    public int limite(int c) {
+        return limites[c];
+    }
+
+    private void entrarClasse(int n, int tamanho) {
+        if (n >= anterior.length) {
+            int cap = Math.max(n + 1, anterior.length * 2);
+            anterior = Arrays.copyOf(anterior, cap);
+            seguinte = Arrays.copyOf(seguinte, cap);
+            classeDoNo = Arrays.copyOf(classeDoNo, cap);
+        }
+        int c = classe(tamanho);
+        classeDoNo[n] = c;
+        anterior[n] = 0;
+        seguinte[n] = cabeca[c];
+        if (cabeca[c] != 0) anterior[cabeca[c]] = n;
+        cabeca[c] = n;
+        naoVazias |= 1L << c;
+    }
+
+    private void sairClasse(int n) {
+        int c = classeDoNo[n];
+        if (anterior[n] != 0) seguinte[anterior[n]] = seguinte[n];
+        else cabeca[c] = seguinte[n];
+        if (seguinte[n] != 0) anterior[seguinte[n]] = anterior[n];
+        if (cabeca[c] == 0) naoVazias &= ~(1L << c);
+    }
+
+    // buraco >= t entre os primeiros "olhar" da lista da classe c, ou NENHUM
+    public int naClasse(int c, int t, int olhar) {
+        for (int n = cabeca[c]; n != 0 && olhar-- > 0; n = seguinte[n]) {
+            visitadosListas++;
+            if (porEndereco.valor(n) >= t) return (int) porEndereco.chave(n);
+        }
+        return NENHUM;
+    }
+
+    // um buraco qualquer da primeira classe não vazia acima de c (todos cabem t se t < limites[c + 1]), ou NENHUM
+    public int acimaDaClasse(int c) {
+        long m = c + 1 >= 64 ? 0 : naoVazias & -1L << (c + 1);
+        return m == 0 ? NENHUM : (int) porEndereco.chave(cabeca[Long.numberOfTrailingZeros(m)]);
+    }
+
+    // ========================
+    // CONSULTAS
+    // ========================
+    // início do buraco que contém a posição, ou NENHUM
+    public int buracoEm(int pos) {
+        int n = porEndereco.piso(pos);
+        if (n == 0) return NENHUM;
+        int inicio = (int) porEndereco.chave(n);
+        return pos < inicio + porEndereco.valor(n) ? inicio : NENHUM;
+    }
+
+    public int tamanhoDoBuraco(int inicio) {
+        int n = porEndereco.piso(inicio);
+        return n != 0 && porEndereco.chave(n) == inicio ? porEndereco.valor(n) : 0;
+    }
+
+    // primeiro buraco com início >= aPartirDe e tamanho >= t
+    public int primeiro(int aPartirDe, int t) {
+        int n = porEndereco.primeiroCom(aPartirDe, t);
+        return n == 0 ? NENHUM : (int) porEndereco.chave(n);
+    }
+
+    // menor buraco com tamanho >= t (empate: menor endereço)
+    public int menorQueCabe(int t) {
+        int n = porTamanho.teto(chaveTamanho(0, t));
+        return n == 0 ? NENHUM : (int) porTamanho.chave(n);
+    }
+
+    // maior buraco (empate: menor endereço)
+    public int maior() {
+        int t = maiorTamanho();
+        return t == 0 ? NENHUM : menorQueCabe(t);
+    }
+
+    public int maiorTamanho() {
+        int n = porTamanho.ultimo();
+        return n == 0 ? 0 : porTamanho.valor(n);
+    }
+
+    // buracos com tamanho < t
+    public int quantosMenoresQue(int t) {
+        int n = 0;
+        for (int no = porTamanho.teto(0); no != 0 && porTamanho.valor(no) < t; no = porTamanho.teto(porTamanho.chave(no) + 1))
+            n++;
+        return n;
+    }
+
+    public int quantidade() {
+        return porEndereco.tamanho();
+    }
+
+    // custo acumulado das buscas: nós das treaps e das listas olhados até agora
+    public long visitados() {
+        return porEndereco.visitados + porTamanho.visitados + visitadosListas;
+    }
+
+    public long livre() {
+        return livre;
+    }
+
+    // buracos com tamanho em [2^i, 2^(i+1)); i de 0 a faixas() - 1
+    public int naFaixa(int i) {
+        return porFaixa[i];
+    }
+
+    public int faixas() {
+        return porFaixa.length;
+    }
+
+    public long somaQuadrados() {
+        return somaQuadrados;
+    }
+
+    // 1 - sqrt(soma dos quadrados) / livre: 0 com um buraco só, 1 - 1/sqrt(k) com k buracos iguais
+    public double indiceFragmentacao() {
+        return livre == 0 ? 0 : Math.max(0, 1.0 - Math.sqrt((double) somaQuadrados) / livre);
+    }
+
+    // ========================
+    // ALTERAÇÕES
+    // ========================
+    // [inicio, inicio + t) passa a ocupado; precisa estar dentro de um buraco
+    public void ocupar(int inicio, int t) {
+        if (t <= 0) return;
+        int b = buracoEm(inicio);
+        int tb = b == NENHUM ? 0 : tamanhoDoBuraco(b);
+        int fim = inicio + t, fimBuraco = b + tb;
+        if (b == NENHUM || fim > fimBuraco)
+            throw new IllegalStateException("Trecho [" + inicio + ", " + fim + ") não está livre");
+        porTamanho.remover(chaveTamanho(b, tb));
+        livre -= t;
+        if (inicio > b) {
+            // sobra à esquerda: o nó do buraco só encolhe
+            alterarEndereco(b, tb, b, inicio - b);
+            porTamanho.inserir(chaveTamanho(b, inicio - b), inicio - b);
+            if (fim < fimBuraco) novoBuraco(fim, fimBuraco - fim);
+        } else if (fim < fimBuraco) {
+            // começa no início do buraco: o nó anda para depois do trecho
+            alterarEndereco(b, tb, fim, fimBuraco - fim);
+            porTamanho.inserir(chaveTamanho(fim, fimBuraco - fim), fimBuraco - fim);
+        } else {
+            removerEndereco(b, tb);
+        }
+    }
+
+    // [inicio, inicio + t) volta a livre, juntando-se aos buracos vizinhos
+    public void liberar(int inicio, int t) {
+        if (t <= 0) return;
+        int fim = inicio + t;
+        int ant = NENHUM, tamAnt = 0, prox = NENHUM, tamProx = 0;
+        int n = porEndereco.piso(inicio - 1L);
+        if (n != 0) {
+            int a = (int) porEndereco.chave(n), tam = porEndereco.valor(n);
+            if (a + tam > inicio) throw new IllegalStateException("Trecho [" + inicio + ", " + fim + ") já está livre");
+            if (a + tam == inicio) {
+                ant = a;
+                tamAnt = tam;
+            }
+        }
+        n = porEndereco.teto(inicio);
+        if (n != 0) {
+            int p = (int) porEndereco.chave(n), tam = porEndereco.valor(n);
+            if (p < fim) throw new IllegalStateException("Trecho [" + inicio + ", " + fim + ") já está livre");
+            if (p == fim) {
+                prox = p;
+                tamProx = tam;
+            }
+        }
+        livre += t;
+        if (ant != NENHUM && prox != NENHUM) {
+            removerEndereco(prox, tamProx);
+            porTamanho.remover(chaveTamanho(prox, tamProx));
+            porTamanho.remover(chaveTamanho(ant, tamAnt));
+            int tam = tamAnt + t + tamProx;
+            alterarEndereco(ant, tamAnt, ant, tam);
+            porTamanho.inserir(chaveTamanho(ant, tam), tam);
+        } else if (ant != NENHUM) {
+            porTamanho.remover(chaveTamanho(ant, tamAnt));
+            alterarEndereco(ant, tamAnt, ant, tamAnt + t);
+            porTamanho.inserir(chaveTamanho(ant, tamAnt + t), tamAnt + t);
+        } else if (prox != NENHUM) {
+            porTamanho.remover(chaveTamanho(prox, tamProx));
+            alterarEndereco(prox, tamProx, inicio, t + tamProx);
+            porTamanho.inserir(chaveTamanho(inicio, t + tamProx), t + tamProx);
+        } else {
+            novoBuraco(inicio, t);
+        }
+    }
+
+    // percorre os buracos em ordem de endereço
+    public interface Visitante {
+        void buraco(int inicio, int tamanho);
+    }
+
+    public void paraCada(Visitante v) {
+        int n = porEndereco.teto(0);
+        while (n != 0) {
+            int inicio = (int) porEndereco.chave(n);
+            v.buraco(inicio, porEndereco.valor(n));
+            n = porEndereco.teto(inicio + 1L);
+        }
+    }
+}
@@ -0,0 +1,123 @@
+import java.util.Arrays;
+
+/**
+ * Mapa de bits de ocupação: um bit por unidade em long[] (1 = ocupado),
+ * 32 vezes menor que um int[] de 0/1.
+ *
+ * Marcar e limpar intervalos trabalha de 64 em 64 unidades (máscaras nas
+ * pontas, Arrays.fill no meio). As buscas pulam palavras inteiras: o
+ * próximo livre/ocupado a partir de uma posição sai de um
+ * numberOfTrailingZeros na primeira palavra que não for toda igual, então
+ * percorrer os trechos da memória custa O(palavras + trechos).
+ */
+public class MapaBits {
+
+    private final long[] palavras;
+    private final long tamanho;
+
+    public MapaBits(long tamanho) {
+        if (tamanho < 0 || (tamanho + 63) >>> 6 > Integer.MAX_VALUE - 8)
+            throw new IllegalArgumentException("tamanho inválido: " + tamanho);
+        this.tamanho = tamanho;
+        this.palavras = new long[(int) ((tamanho + 63) >>> 6)];
+    }
+
+    public long tamanho() {
+        return tamanho;
+    }
+
+    public boolean ocupado(long i) {
+        return (palavras[(int) (i >>> 6)] & 1L << i) != 0;
+    }
+
+    // marca [inicio, fim) como ocupado (true) ou livre (false)
+    public void definir(long inicio, long fim, boolean ocupado) {
+        if (inicio < 0 || fim > tamanho || inicio > fim)
+            throw new IndexOutOfBoundsException("[" + inicio + ", " + fim + ") fora de [0, " + tamanho + ")");
+        if (inicio == fim) return;
+        int p0 = (int) (inicio >>> 6), p1 = (int) ((fim - 1) >>> 6);
+        long m0 = -1L << inicio;         // bits de inicio em diante na primeira palavra
+        long m1 = -1L >>> -fim;          // bits até fim - 1 na última
+        if (p0 == p1) {
+            aplicar(p0, m0 & m1, ocupado);
+            return;
+        }
+        aplicar(p0, m0, ocupado);
+        Arrays.fill(palavras, p0 + 1, p1, ocupado ? -1L : 0L);
+        aplicar(p1, m1, ocupado);
+    }
+
+    private void aplicar(int p, long mascara, boolean ocupado) {
+        if (ocupado) palavras[p] |= mascara;
+        else palavras[p] &= ~mascara;
+    }
+
+    // primeira posição >= de com o estado pedido, ou tamanho se não houver
+    public long proximo(long de, boolean ocupado) {
+        if (de >= tamanho) return tamanho;
+        int p = (int) (de >>> 6);
+        long inverter = ocupado ? 0 : -1L;   // procura bits 1 em (palavra ^ inverter)
+        long w = (palavras[p] ^ inverter) & (-1L << de);
+        while (w == 0) {
+            if (++p == palavras.length) return tamanho;
+            w = palavras[p] ^ inverter;
+        }
+        return Math.min(tamanho, ((long) p << 6) + Long.numberOfTrailingZeros(w));
+    }
+
+    // [inicio, inicio + t) está todo livre?
+    public boolean livre(long inicio, long t) {
+        if (inicio < 0 || inicio + t > tamanho) return false;
+        return t <= 0 || proximo(inicio, true) >= inicio + t;
+    }
+
+    // primeiro trecho livre de pelo menos t unidades a partir de "de", ou -1
+    public long primeiroLivre(long de, long t) {
+        long i = proximo(de, false);
+        while (i < tamanho) {
+            long fim = proximo(i, true);
+            if (fim - i >= t) return i;
+            i = proximo(fim, false);
+        }
+        return -1;
+    }
+
+    public long ocupados() {
+        long n = 0;
+        for (long w : palavras) n += Long.bitCount(w);
+        return n;
+    }
+
+    // percorre os trechos maximais (ocupado ou livre) em ordem
+    public interface Visitante {
+        void trecho(long inicio, long comprimento, boolean ocupado);
+    }
+
+    public void paraCadaTrecho(Visitante v) {
+        long i = 0;
+        while (i < tamanho) {
+            boolean ocupado = ocupado(i);
+            long fim = proximo(i, !ocupado);
+            v.trecho(i, fim - i, ocupado);
+            i = fim;
+        }
+    }
+
+    // resumo em comprimento de carreira: "1x5 0x4 1x2 0x21"; depois de maxTrechos trechos, "..."
+    public String resumo(int maxTrechos) {
+        StringBuilder sb = new StringBuilder();
+        long i = 0;
+        for (int n = 0; i < tamanho; n++) {
+            if (n == maxTrechos) {
+                sb.append(" ...");
+                break;
+            }
+            boolean ocupado = ocupado(i);
+            long fim = proximo(i, !ocupado);
+            if (sb.length() > 0) sb.append(' ');
+            sb.append(ocupado ? '1' : '0').append('x').append(fim - i);
+            i = fim;
+        }
+        return sb.toString();
+    }
+}
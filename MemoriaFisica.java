@@ -0,0 +1,280 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Memória física simulada com bytes de verdade, fora do heap: pedaços de
+ * 2^PEDACO_BITS bytes em ByteBuffers diretos (ou mapeados de um arquivo),
+ * endereçados por long, então a região pode ter muitos gigabytes. No heap
+ * fica só o vetor de pedaços; o coletor de lixo não vê os dados.
+ *
+ * Ligada a um {@link GerenciamentoMemoria} (usarMemoriaFisica), cada unidade
+ * da simulação vale bytesPorUnidade bytes, a compactação move os bytes dos
+ * blocos com {@link #copiar} (cópias em bloco, pedaço a pedaço) e a alocação
+ * devolve um {@link Bloco} para ler e escrever no processo.
+ *
+ * ByteBuffers diretos contam no limite -XX:MaxDirectMemorySize (por padrão o
+ * tamanho máximo do heap); regiões maiores que isso: use {@link #mapear}.
+ * Leituras e escritas de int/long usam a ordem de bytes nativa.
+ */
+public class MemoriaFisica {
+
+    static final int PEDACO_BITS = 30; // 1 GiB por ByteBuffer
+
+    private final ByteBuffer[] pedacos;
+    private final int bits;
+    private final long mascara;
+    private final long tamanho;
+    long bytesCopiados, copias;
+
+    public MemoriaFisica(long bytes) {
+        this(bytes, PEDACO_BITS, null);
+    }
+
+    // pedacoBits < 30 só para testar as fronteiras entre pedaços
+    MemoriaFisica(long bytes, int pedacoBits, FileChannel arquivo) {
+        if (bytes < 0 || pedacoBits < 3 || pedacoBits > 30) throw new IllegalArgumentException("tamanho inválido: " + bytes);
+        this.tamanho = bytes;
+        this.bits = pedacoBits;
+        this.mascara = (1L << pedacoBits) - 1;
+        long n = (bytes + mascara) >>> pedacoBits;
+        if (n > Integer.MAX_VALUE) throw new IllegalArgumentException("tamanho inválido: " + bytes);
+        pedacos = new ByteBuffer[(int) n];
+        for (int i = 0; i < pedacos.length; i++) {
+            long inicio = (long) i << pedacoBits;
+            int t = (int) Math.min(1L << pedacoBits, bytes - inicio);
+            try {
+                ByteBuffer b = arquivo == null ? ByteBuffer.allocateDirect(t)
+                                               : arquivo.map(FileChannel.MapMode.READ_WRITE, inicio, t);
+                pedacos[i] = b.order(ByteOrder.nativeOrder());
+            } catch (IOException e) {
+                throw new IllegalStateException("Falha ao mapear " + t + " bytes em " + inicio, e);
+            }
+        }
+    }
+
+    // região mapeada de um arquivo (criado ou aumentado até "bytes"); o SO pagina sob demanda
+    public static MemoriaFisica mapear(Path caminho, long bytes) throws IOException {
+        try (FileChannel canal = FileChannel.open(caminho, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                                                  StandardOpenOption.WRITE)) {
+            return new MemoriaFisica(bytes, PEDACO_BITS, canal); // o mapeamento continua válido depois do close
+        }
+    }
+
+    public long tamanho() {
+        return tamanho;
+    }
+
+    private ByteBuffer pedaco(long endereco) {
+        return pedacos[(int) (endereco >>> bits)];
+    }
+
+    private int indice(long endereco) {
+        return (int) (endereco & mascara);
+    }
+
+    private void verificar(long endereco, long n) {
+        if (endereco < 0 || n < 0 || endereco + n > tamanho)
+            throw new IndexOutOfBoundsException("[" + endereco + ", " + (endereco + n) + ") fora de [0, " + tamanho + ")");
+    }
+
+    // ========================
+    // LEITURA E ESCRITA
+    // ========================
+    public byte lerByte(long endereco) {
+        verificar(endereco, 1);
+        return pedaco(endereco).get(indice(endereco));
+    }
+
+    public void escreverByte(long endereco, byte v) {
+        verificar(endereco, 1);
+        pedaco(endereco).put(indice(endereco), v);
+    }
+
+    public int lerInt(long endereco) {
+        verificar(endereco, 4);
+        int i = indice(endereco);
+        if (i <= mascara - 3) return pedaco(endereco).getInt(i);
+        int v = 0; // atravessa a fronteira de dois pedaços
+        for (int k = 0; k < 4; k++) v |= (lerByte(endereco + k) & 0xFF) << byteNativo(k, 4);
+        return v;
+    }
+
+    public void escreverInt(long endereco, int v) {
+        verificar(endereco, 4);
+        int i = indice(endereco);
+        if (i <= mascara - 3) {
+            pedaco(endereco).putInt(i, v);
+            return;
+        }
+        for (int k = 0; k < 4; k++) escreverByte(endereco + k, (byte) (v >>> byteNativo(k, 4)));
+    }
+
+    public long lerLong(long endereco) {
+        verificar(endereco, 8);
+        int i = indice(endereco);
+        if (i <= mascara - 7) return pedaco(endereco).getLong(i);
+        long v = 0;
+        for (int k = 0; k < 8; k++) v |= (lerByte(endereco + k) & 0xFFL) << byteNativo(k, 8);
+        return v;
+    }
+
+    public void escreverLong(long endereco, long v) {
+        verificar(endereco, 8);
+        int i = indice(endereco);
+        if (i <= mascara - 7) {
+            pedaco(endereco).putLong(i, v);
+            return;
+        }
+        for (int k = 0; k < 8; k++) escreverByte(endereco + k, (byte) (v >>> byteNativo(k, 8)));
+    }
+
+    // deslocamento do k-ésimo byte na memória dentro de um valor de n bytes
+    private static int byteNativo(int k, int n) {
+        return 8 * (ByteOrder.nativeOrder() == ByteOrder.LITTLE_ENDIAN ? k : n - 1 - k);
+    }
+
+    public void ler(long endereco, byte[] destino, int de, int n) {
+        verificar(endereco, n);
+        while (n > 0) {
+            int i = indice(endereco);
+            int t = (int) Math.min(n, mascara + 1 - i);
+            pedaco(endereco).get(i, destino, de, t);
+            endereco += t;
+            de += t;
+            n -= t;
+        }
+    }
+
+    public void escrever(long endereco, byte[] origem, int de, int n) {
+        verificar(endereco, n);
+        while (n > 0) {
+            int i = indice(endereco);
+            int t = (int) Math.min(n, mascara + 1 - i);
+            pedaco(endereco).put(i, origem, de, t);
+            endereco += t;
+            de += t;
+            n -= t;
+        }
+    }
+
+    // ========================
+    // CÓPIA EM BLOCO
+    // ========================
+    // copia n bytes de origem para destino; as faixas podem se sobrepor (como memmove).
+    // Cada trecho fica dentro de um pedaço na origem e no destino; com destino > origem os
+    // trechos vão do fim para o começo, para não sobrescrever o que ainda vai ser lido.
+    public void copiar(long origem, long destino, long n) {
+        verificar(origem, n);
+        verificar(destino, n);
+        if (n == 0 || origem == destino) return;
+        copias++;
+        bytesCopiados += n;
+        if (destino < origem) {
+            while (n > 0) {
+                int t = (int) Math.min(n, Math.min(mascara + 1 - indice(origem), mascara + 1 - indice(destino)));
+                pedaco(destino).put(indice(destino), pedaco(origem), indice(origem), t);
+                origem += t;
+                destino += t;
+                n -= t;
+            }
+        } else {
+            long fimO = origem + n, fimD = destino + n;
+            while (n > 0) {
+                // trecho que termina em fimO / fimD sem cruzar o começo de um pedaço
+                int t = (int) Math.min(n, Math.min(indice(fimO - 1) + 1, indice(fimD - 1) + 1));
+                fimO -= t;
+                fimD -= t;
+                pedaco(fimD).put(indice(fimD), pedaco(fimO), indice(fimO), t);
+                n -= t;
+            }
+        }
+    }
+
+    public void preencher(long endereco, long n, byte v) {
+        verificar(endereco, n);
+        while (n > 0) {
+            ByteBuffer b = pedaco(endereco);
+            int i = indice(endereco);
+            int t = (int) Math.min(n, mascara + 1 - i);
+            for (int k = 0; k < t; k++) b.put(i + k, v);
+            endereco += t;
+            n -= t;
+        }
+    }
+
+    // ========================
+    // BLOCO DE UM PROCESSO
+    // ========================
+    // acesso aos bytes de um processo alocado; o endereço sai de p.inicio a cada acesso, então
+    // o bloco continua válido depois da compactação mover o processo
+    public class Bloco {
+        final Processo p;
+        private final int bytesPorUnidade;
+
+        Bloco(Processo p, int bytesPorUnidade) {
+            this.p = p;
+            this.bytesPorUnidade = bytesPorUnidade;
+        }
+
+        public long bytes() {
+            return (long) p.tamanho * bytesPorUnidade;
+        }
+
+        private long endereco(long deslocamento, int n) {
+            if (p.inicio == -1) throw new IllegalStateException("Processo " + p.id + " não está na memória");
+            if (deslocamento < 0 || deslocamento + n > bytes())
+                throw new IndexOutOfBoundsException(deslocamento + " + " + n + " fora do bloco de " + bytes() + " bytes");
+            return (long) p.inicio * bytesPorUnidade + deslocamento;
+        }
+
+        public byte lerByte(long i) { return MemoriaFisica.this.lerByte(endereco(i, 1)); }
+        public void escreverByte(long i, byte v) { MemoriaFisica.this.escreverByte(endereco(i, 1), v); }
+        public int lerInt(long i) { return MemoriaFisica.this.lerInt(endereco(i, 4)); }
+        public void escreverInt(long i, int v) { MemoriaFisica.this.escreverInt(endereco(i, 4), v); }
+        public long lerLong(long i) { return MemoriaFisica.this.lerLong(endereco(i, 8)); }
+        public void escreverLong(long i, long v) { MemoriaFisica.this.escreverLong(endereco(i, 8), v); }
+
+        public void ler(long i, byte[] destino, int de, int n) {
+            MemoriaFisica.this.ler(endereco(i, n), destino, de, n);
+        }
+
+        public void escrever(long i, byte[] origem, int de, int n) {
+            MemoriaFisica.this.escrever(endereco(i, n), origem, de, n);
+        }
+    }
+
+    // exemplo de uso: 4 GiB fora do heap (java -XX:MaxDirectMemorySize=5g MemoriaFisica)
+    public static void main(String[] args) {
+        long gib = args.length > 0 ? Long.parseLong(args[0]) : 4;
+        int bytesPorUnidade = 4096;
+        int unidades = (int) ((gib << 30) / bytesPorUnidade);
+        GerenciamentoMemoria gm = new GerenciamentoMemoria(unidades);
+        gm.verboso = false;
+        MemoriaFisica fisica = new MemoriaFisica((long) unidades * bytesPorUnidade);
+        gm.usarMemoriaFisica(fisica, bytesPorUnidade);
+
+        Processo[] ps = new Processo[64];
+        for (int i = 0; i < ps.length; i++) {
+            ps[i] = new Processo("P" + i, unidades / 128);
+            gm.firstFit(ps[i]);
+            MemoriaFisica.Bloco b = gm.bloco(ps[i]);
+            b.escreverLong(0, i);
+            b.escreverLong(b.bytes() - 8, -i);
+        }
+        for (int i = 0; i < ps.length; i += 2) gm.desalocar(ps[i]);
+        long t0 = System.nanoTime();
+        gm.compactar();
+        long ms = (System.nanoTime() - t0) / 1_000_000;
+        for (int i = 1; i < ps.length; i += 2) {
+            MemoriaFisica.Bloco b = gm.bloco(ps[i]);
+            if (b.lerLong(0) != i || b.lerLong(b.bytes() - 8) != -i) throw new IllegalStateException("dados de P" + i);
+        }
+        System.out.printf("Compactação de %d GiB: %d MiB copiados em %d ms (heap usado: %d MiB)%n", gib,
+                          fisica.bytesCopiados >> 20, ms,
+                          (Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory()) >> 20);
+    }
+}
@@ -0,0 +1,107 @@
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.Locale;
+
+/**
+ * Métricas de latência de uma execução do escalonador, em ciclos simulados.
+ *
+ * O motor chama {@link #aoDespachar} e {@link #aoTerminar}; cada chamada é
+ * um punhado de somas e um registro em {@link HistogramaLog}, então as
+ * métricas ficam sempre ligadas, mesmo com milhões de processos.
+ *
+ * - turnaround: conclusão - chegada
+ * - resposta: primeira execução - chegada
+ * - espera na fila: cada intervalo PRONTO -> EXECUTANDO
+ * - espera total / bloqueado total: soma por processo
+ * - despachos: nº de vezes que cada processo ganhou a CPU
+ */
+public class MetricasEscalonador {
+
+    final HistogramaLog turnaround = new HistogramaLog("turnaround");
+    final HistogramaLog resposta = new HistogramaLog("resposta");
+    final HistogramaLog esperaFila = new HistogramaLog("espera_fila");
+    final HistogramaLog esperaTotal = new HistogramaLog("espera_total");
+    final HistogramaLog bloqueadoTotal = new HistogramaLog("bloqueado_total");
+    final HistogramaLog despachos = new HistogramaLog("despachos");
+
+    // PRONTO -> EXECUTANDO
+    void aoDespachar(SimuladorSO.Processo p, long agora) {
+        long espera = agora - p.desde;
+        p.esperaTotal += espera;
+        esperaFila.registrar(espera);
+        if (p.primeiraExecucao < 0) {
+            p.primeiraExecucao = agora;
+            resposta.registrar(agora - p.chegada);
+        }
+        p.desde = agora;
+    }
+
+    void aoTerminar(SimuladorSO.Processo p, long agora) {
+        p.conclusao = agora;
+        turnaround.registrar(agora - p.chegada);
+        esperaTotal.registrar(p.esperaTotal);
+        bloqueadoTotal.registrar(p.bloqueadoTotal);
+        despachos.registrar(p.ncpu);
+    }
+
+    HistogramaLog[] histogramas() {
+        return new HistogramaLog[] { turnaround, resposta, esperaFila, esperaTotal, bloqueadoTotal, despachos };
+    }
+
+    public void juntar(MetricasEscalonador outra) {
+        HistogramaLog[] meus = histogramas(), dela = outra.histogramas();
+        for (int i = 0; i < meus.length; i++) meus[i].juntar(dela[i]);
+    }
+
+    void gravar(DataOutput out) throws IOException {
+        for (HistogramaLog h : histogramas()) h.gravar(out);
+    }
+
+    void ler(DataInput in) throws IOException {
+        for (HistogramaLog h : histogramas()) h.ler(in);
+    }
+
+    // ========================
+    // SAÍDA
+    // ========================
+    public void imprimir() {
+        System.out.println("==== Latências (ciclos) ====");
+        System.out.println("Métrica\t\tN\tMédia\tp50\tp99\tp99.9\tMáx");
+        for (HistogramaLog h : histogramas()) {
+            System.out.printf(Locale.ROOT, "%-15s\t%d\t%.1f\t%d\t%d\t%d\t%d%n", h.nome, h.total(), h.media(),
+                              h.percentil(50), h.percentil(99), h.percentil(99.9), h.max());
+        }
+        System.out.println("============================\n");
+    }
+
+    // CSV, ou JSON se o nome terminar em .json
+    public void exportar(Path caminho) throws IOException {
+        boolean json = caminho.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".json");
+        try (Writer w = Files.newBufferedWriter(caminho, StandardCharsets.UTF_8)) {
+            if (json) escreverJson(w);
+            else escreverCsv(w);
+        }
+    }
+
+    void escreverCsv(Writer w) throws IOException {
+        w.write("metrica,n,media,p50,p99,p999,max\n");
+        for (HistogramaLog h : histogramas()) {
+            w.write(String.format(Locale.ROOT, "%s,%d,%.3f,%d,%d,%d,%d%n", h.nome, h.total(), h.media(),
+                                  h.percentil(50), h.percentil(99), h.percentil(99.9), h.max()));
+        }
+    }
+
+    void escreverJson(Writer w) throws IOException {
+        w.write("{\n");
+        HistogramaLog[] hs = histogramas();
+        for (int i = 0; i < hs.length; i++) {
+            HistogramaLog h = hs[i];
+            w.write(String.format(Locale.ROOT,
+                    "  \"%s\": {\"n\": %d, \"media\": %.3f, \"p50\": %d, \"p99\": %d, \"p999\": %d, \"max\": %d}%s%n",
+                    h.nome, h.total(), h.media(), h.percentil(50), h.percentil(99), h.percentil(99.9), h.max(),
+                    i + 1 < hs.length ? "," : ""));
+        }
+        w.write("}\n");
+    }
+}
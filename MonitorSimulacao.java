@@ -0,0 +1,274 @@
+import java.beans.ConstructorProperties;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.lang.management.ManagementFactory;
+import javax.management.*;
+
+/**
+ * Monitoramento ao vivo por JMX (jconsole, VisualVM): estado do escalonador,
+ * ocupação do alocador de memória e faltas de página do LRU.
+ *
+ * Nada aqui para a simulação. Quem simula escreve em {@link Contador}es de
+ * um só escritor (store opaco, sem barreira nem trava) e o MBean lê esses
+ * valores de outra thread; os histogramas do escalonador são lidos do mesmo
+ * jeito (ver {@link HistogramaLog}). Uma leitura pode estar alguns eventos
+ * atrás da simulação, mas nunca vê um long pela metade.
+ *
+ * As taxas por segundo são calculadas por quem lê, entre duas leituras
+ * seguidas (o intervalo de atualização do jconsole), em tempo real.
+ *
+ * Nomes registrados: SimuladorSO:type=Escalonador, SimuladorSO:type=Memoria,name=...
+ * e SimuladorSO:type=LRU.
+ */
+public class MonitorSimulacao {
+
+    static final String DOMINIO = "SimuladorSO";
+
+    // contador de um só escritor, legível de qualquer thread sem trava
+    static final class Contador {
+        private static final VarHandle VALOR;
+        static {
+            try {
+                VALOR = MethodHandles.lookup().findVarHandle(Contador.class, "valor", long.class);
+            } catch (ReflectiveOperationException e) {
+                throw new ExceptionInInitializerError(e);
+            }
+        }
+
+        private long valor;
+
+        void somar(long d) {
+            VALOR.setOpaque(this, valor + d);
+        }
+
+        void definir(long v) {
+            VALOR.setOpaque(this, v);
+        }
+
+        long ler() {
+            return (long) VALOR.getOpaque(this);
+        }
+    }
+
+    // variação por segundo entre duas leituras; o estado fica só do lado de quem lê
+    static final class Taxa {
+        private long ultimoValor;
+        private long ultimoNanos = System.nanoTime();
+        private double ultimaTaxa;
+
+        synchronized double porSegundo(long valor) {
+            long agora = System.nanoTime();
+            long dt = agora - ultimoNanos;
+            if (dt < 100_000_000L) return ultimaTaxa; // leituras muito próximas: repete a última
+            ultimaTaxa = (valor - ultimoValor) * 1e9 / dt;
+            ultimoValor = valor;
+            ultimoNanos = agora;
+            return ultimaTaxa;
+        }
+    }
+
+    // ========================
+    // ESCALONADOR
+    // ========================
+    public interface EscalonadorMXBean {
+        String getPolitica();
+        long getProntos();
+        long getBloqueados();
+        long getTerminados();
+        long getRodadas();
+        long getRelogio();
+        double getRodadasPorSegundo();
+        double getCiclosPorSegundo();
+        long getTrocasContexto();
+        double getTrocasContextoPorSegundo();
+        Latencia getTurnaround();
+        Latencia getResposta();
+        Latencia getEsperaFila();
+        Latencia getEsperaTotal();
+        Latencia getBloqueadoTotal();
+        Latencia getDespachosPorProcesso();
+    }
+
+    // resumo de um HistogramaLog (vira CompositeData no JMX)
+    public static class Latencia {
+        private final long n, p50, p99, p999, max;
+        private final double media;
+
+        @ConstructorProperties({ "n", "media", "p50", "p99", "p999", "max" })
+        public Latencia(long n, double media, long p50, long p99, long p999, long max) {
+            this.n = n;
+            this.media = media;
+            this.p50 = p50;
+            this.p99 = p99;
+            this.p999 = p999;
+            this.max = max;
+        }
+
+        static Latencia de(HistogramaLog h) {
+            return new Latencia(h.total(), h.media(), h.percentil(50), h.percentil(99), h.percentil(99.9), h.max());
+        }
+
+        public long getN() { return n; }
+        public double getMedia() { return media; }
+        public long getP50() { return p50; }
+        public long getP99() { return p99; }
+        public long getP999() { return p999; }
+        public long getMax() { return max; }
+    }
+
+    // publicado pelo MotorEventos a cada evento
+    static class Motor implements EscalonadorMXBean {
+        private final String politica;
+        private final MetricasEscalonador metricas;
+        final Contador prontos = new Contador();
+        final Contador bloqueados = new Contador();
+        final Contador terminados = new Contador();
+        final Contador rodadas = new Contador();
+        final Contador relogio = new Contador();
+        final Contador trocas = new Contador();
+        private int ultimoPid = -1; // só o escritor usa
+        private final Taxa taxaRodadas = new Taxa(), taxaCiclos = new Taxa(), taxaTrocas = new Taxa();
+
+        Motor(String politica, MetricasEscalonador metricas) {
+            this.politica = politica;
+            this.metricas = metricas;
+        }
+
+        // troca de contexto = despacho de um processo diferente do anterior
+        void aoDespachar(int pid) {
+            if (pid != ultimoPid) trocas.somar(1);
+            ultimoPid = pid;
+        }
+
+        void publicar(long rodada, long agora, int nProntos, int nBloqueados, long nTerminados) {
+            rodadas.definir(rodada);
+            relogio.definir(agora);
+            prontos.definir(nProntos);
+            bloqueados.definir(nBloqueados);
+            terminados.definir(nTerminados);
+        }
+
+        public String getPolitica() { return politica; }
+        public long getProntos() { return prontos.ler(); }
+        public long getBloqueados() { return bloqueados.ler(); }
+        public long getTerminados() { return terminados.ler(); }
+        public long getRodadas() { return rodadas.ler(); }
+        public long getRelogio() { return relogio.ler(); }
+        public double getRodadasPorSegundo() { return taxaRodadas.porSegundo(rodadas.ler()); }
+        public double getCiclosPorSegundo() { return taxaCiclos.porSegundo(relogio.ler()); }
+        public long getTrocasContexto() { return trocas.ler(); }
+        public double getTrocasContextoPorSegundo() { return taxaTrocas.porSegundo(trocas.ler()); }
+        public Latencia getTurnaround() { return Latencia.de(metricas.turnaround); }
+        public Latencia getResposta() { return Latencia.de(metricas.resposta); }
+        public Latencia getEsperaFila() { return Latencia.de(metricas.esperaFila); }
+        public Latencia getEsperaTotal() { return Latencia.de(metricas.esperaTotal); }
+        public Latencia getBloqueadoTotal() { return Latencia.de(metricas.bloqueadoTotal); }
+        public Latencia getDespachosPorProcesso() { return Latencia.de(metricas.despachos); }
+    }
+
+    // ========================
+    // MEMÓRIA
+    // ========================
+    public interface MemoriaMXBean {
+        long getTamanho();
+        long getOcupadas();
+        double getOcupacao();
+        long getBuracos();
+        long getMaiorBuraco();
+        double getFragmentacaoExterna();
+        double getIndiceFragmentacao();
+        long getUnidadesMovidas();
+        long getAlocacoes();
+        long getFalhas();
+        double getAlocacoesPorSegundo();
+    }
+
+    static class Memoria implements MemoriaMXBean {
+        private final GerenciamentoMemoria gm;
+        private final Taxa taxaAlocacoes = new Taxa();
+
+        Memoria(GerenciamentoMemoria gm) {
+            this.gm = gm;
+        }
+
+        public long getTamanho() { return gm.tamanho(); }
+        public long getOcupadas() { return gm.ocupadas.ler(); }
+        public double getOcupacao() { return gm.tamanho() == 0 ? 0 : (double) gm.ocupadas.ler() / gm.tamanho(); }
+        public long getBuracos() { return gm.buracos.ler(); }
+        public long getAlocacoes() { return gm.alocacoes.ler(); }
+        public long getFalhas() { return gm.falhas.ler(); }
+        public long getUnidadesMovidas() { return gm.unidadesMovidas.ler(); }
+        public double getAlocacoesPorSegundo() { return taxaAlocacoes.porSegundo(gm.alocacoes.ler()); }
+
+        public long getMaiorBuraco() {
+            return gm.maiorBuraco.ler();
+        }
+
+        // 1 - maior buraco / memória livre: 0 = todo o espaço livre é contíguo
+        public double getFragmentacaoExterna() {
+            long livres = gm.tamanho() - gm.ocupadas.ler();
+            return livres <= 0 ? 0 : Math.max(0, 1.0 - (double) getMaiorBuraco() / livres);
+        }
+
+        // 1 - sqrt(soma dos quadrados dos buracos) / memória livre (ver IndiceBuracos)
+        public double getIndiceFragmentacao() {
+            long livres = gm.tamanho() - gm.ocupadas.ler();
+            return livres <= 0 ? 0 : Math.max(0, 1.0 - Math.sqrt((double) gm.somaQuadrados.ler()) / livres);
+        }
+    }
+
+    // ========================
+    // LRU
+    // ========================
+    public interface LRUMXBean {
+        long getAcessos();
+        long getFaltas();
+        double getTaxaFaltas();
+        double getFaltasPorSegundo();
+        double getAcessosPorSegundo();
+    }
+
+    static class LRU implements LRUMXBean {
+        private final Taxa taxaFaltas = new Taxa(), taxaAcessos = new Taxa();
+
+        public long getAcessos() { return SimuladorLRU.acessos.ler(); }
+        public long getFaltas() { return SimuladorLRU.faltas.ler(); }
+        public double getFaltasPorSegundo() { return taxaFaltas.porSegundo(SimuladorLRU.faltas.ler()); }
+        public double getAcessosPorSegundo() { return taxaAcessos.porSegundo(SimuladorLRU.acessos.ler()); }
+
+        public double getTaxaFaltas() {
+            long a = SimuladorLRU.acessos.ler();
+            double f = SimuladorLRU.faltas.ler();
+            return a == 0 ? 0 : f / a;
+        }
+    }
+
+    // ========================
+    // REGISTRO
+    // ========================
+    // o motor passa a publicar no MBean; um registro anterior com o mesmo nome é substituído
+    static void registrar(MotorEventos motor, String politica) {
+        Motor mbean = new Motor(politica, motor.metricas());
+        motor.monitorar(mbean);
+        registrar(mbean, "type=Escalonador");
+    }
+
+    static void registrar(GerenciamentoMemoria gm, String nome) {
+        registrar(new Memoria(gm), "type=Memoria,name=" + ObjectName.quote(nome));
+    }
+
+    static void registrarLRU() {
+        registrar(new LRU(), "type=LRU");
+    }
+
+    private static void registrar(Object mbean, String propriedades) {
+        try {
+            MBeanServer servidor = ManagementFactory.getPlatformMBeanServer();
+            ObjectName nome = new ObjectName(DOMINIO + ":" + propriedades);
+            if (servidor.isRegistered(nome)) servidor.unregisterMBean(nome);
+            servidor.registerMBean(mbean, nome);
+        } catch (JMException e) {
+            throw new IllegalStateException("Falha ao registrar MBean " + propriedades, e);
+        }
+    }
+}
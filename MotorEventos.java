@@ -0,0 +1,597 @@
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.util.*;
+import java.util.random.RandomGenerator;
+
+/**
+ * Motor de simulação por eventos discretos.
+ *
+ * Em vez de andar ciclo a ciclo dentro do quantum, o relógio pula direto
+ * para o próximo instante interessante. No despacho sorteamos (distribuição
+ * geométrica) em que ciclo acontece a próxima E/S e comparamos com o fim do
+ * quantum e com o tempo restante; o menor dos três vira um evento FIM_FATIA.
+ *
+ * Cada E/S vai para um {@link Dispositivo} (sorteado entre os configurados),
+ * que atende até "profundidade" requisições ao mesmo tempo e enfileira o
+ * resto. O fim de cada serviço é agendado em uma
+ * {@link RodaTemporizadores}, então acordar um processo custa O(1)
+ * amortizado não importa quantos estejam bloqueados. CPU ociosa não custa
+ * tempo real: o relógio salta até o próximo vencimento da roda.
+ *
+ * Com uma {@link FonteCarga} os processos vêm de um trace: cada um entra no
+ * escalonador quando o relógio alcança a sua chegada (só o próximo fica
+ * lido de antemão) e a E/S segue as rajadas do trace em vez do sorteio.
+ * Processos terminados não ficam guardados, então a memória depende só dos
+ * processos vivos.
+ *
+ * {@link #instantaneo} serializa o estado inteiro (processos, ordem dos
+ * prontos, filas dos dispositivos, E/S em serviço, fatia em andamento,
+ * métricas e o estado do {@link GeradorSplitMix}); restaurado em outro
+ * motor, a continuação é idêntica à da execução original.
+ *
+ * Com {@link #monitorar} o laço publica, a cada evento, as contagens de
+ * prontos/bloqueados/terminados, a rodada e o relógio num
+ * {@link MonitorSimulacao.Motor}, que o JMX lê sem parar a simulação.
+ *
+ * Quem roda e por quanto tempo é decidido pelo {@link Escalonador}; se a
+ * política pedir preempção quando alguém desbloqueia, o evento de fim da
+ * fatia atual é descartado (cancelamento preguiçoso pelo seq) e o processo
+ * em execução é contabilizado até o instante da preempção.
+ */
+public class MotorEventos {
+
+    static final int FIM_FATIA = 0;
+    static final int MAGICO_INSTANTANEO = 0x534F494E; // "SOIN"
+    static final int VERSAO_INSTANTANEO = 2; // 2: baldes do HistogramaLog com SUB_BITS = 7
+    private static final Comparator<SimuladorSO.Processo> POR_SEQ_SERVICO =
+            Comparator.comparingLong(p -> p.seqServico);
+
+    static class Evento implements Comparable<Evento> {
+        final long tempo;
+        final long seq; // desempate: eventos no mesmo instante saem na ordem de criação
+        final int tipo;
+        final int pid;
+
+        Evento(long tempo, long seq, int tipo, int pid) {
+            this.tempo = tempo;
+            this.seq = seq;
+            this.tipo = tipo;
+            this.pid = pid;
+        }
+
+        @Override
+        public int compareTo(Evento o) {
+            if (tempo != o.tempo) return Long.compare(tempo, o.tempo);
+            return Long.compare(seq, o.seq);
+        }
+    }
+
+    private final List<SimuladorSO.Processo> processos;
+    private final Escalonador escalonador;
+    private final double logNaoES;          // ln(1 - probES)
+    private final Dispositivo[] dispositivos;
+    private final RandomGenerator rand;
+    private final TabelaProcessosBinaria tabela; // pode ser null (sem persistência)
+    private final DiarioTransicoes diario;       // pode ser null (sem persistência)
+    private final RegistroEventos log;
+    private final MetricasEscalonador metricas = new MetricasEscalonador();
+    private MonitorSimulacao.Motor monitor;
+    private FonteCarga fonte;                // pode ser null (só a lista fixa)
+    private SimuladorSO.Processo chegando;   // próximo da fonte, ainda não chegou
+    private int admitidos;
+
+    private final PriorityQueue<Evento> eventos = new PriorityQueue<>();
+    private RodaTemporizadores<SimuladorSO.Processo> roda = new RodaTemporizadores<>(0);
+    private final List<SimuladorSO.Processo> concluidos = new ArrayList<>();
+    private final ConjuntoInt bloqueados;
+    private long seqEventos;
+    private long seqServicos;
+    private GravadorInstantaneos instantaneos; // pode ser null
+    private final SaidaBytes saidaInstantaneo = new SaidaBytes();
+    private int instantaneoCada;
+    private int proximoInstantaneo;
+
+    private long relogio;
+    private int rodada;
+    private int terminados;
+
+    // fatia em andamento
+    private SimuladorSO.Processo retomado; // EXECUTANDO na queda, a fatia recomeça na retomada
+    private SimuladorSO.Processo executando;
+    private long inicioFatia;
+    private long seqFatia;
+    private long duracaoFatia;
+    private SimuladorSO.Estado resultadoFatia;
+
+    public MotorEventos(List<SimuladorSO.Processo> processos, Escalonador escalonador, double probES,
+                        Dispositivo[] dispositivos, RandomGenerator rand,
+                        TabelaProcessosBinaria tabela, DiarioTransicoes diario, RegistroEventos log) {
+        this.processos = processos;
+        this.bloqueados = new ConjuntoInt(16); // cresce com os bloqueados, não com os PIDs
+        this.escalonador = escalonador;
+        this.logNaoES = Math.log1p(-probES);
+        this.dispositivos = dispositivos;
+        this.rand = rand;
+        this.tabela = tabela;
+        this.diario = diario;
+        this.log = log;
+    }
+
+    // processos adicionais lidos de um trace, admitidos na hora da chegada (sem persistência)
+    public void usarFonte(FonteCarga fonte) {
+        this.fonte = fonte;
+    }
+
+    // publica contadores para o JMX a cada evento (ver MonitorSimulacao)
+    void monitorar(MonitorSimulacao.Motor monitor) {
+        this.monitor = monitor;
+    }
+
+    // um instantâneo a cada "rodadas" despachos, gravado em segundo plano
+    public void gravarInstantaneos(GravadorInstantaneos gravador, int rodadas) {
+        this.instantaneos = gravador;
+        this.instantaneoCada = rodadas;
+        this.proximoInstantaneo = rodada + rodadas;
+    }
+
+    // ========================
+    // INÍCIO / RETOMADA
+    // ========================
+    public void iniciar(boolean retomar) throws IOException {
+        DiarioTransicoes.Progresso prog = null;
+        if (retomar && diario != null) prog = diario.recuperar(processos, escalonador, bloqueados);
+        if (prog != null) {
+            retomado = prog.executando;
+            rodada = prog.rodada;
+            terminados = prog.terminados;
+            relogio = prog.relogio;
+            roda = new RodaTemporizadores<>(relogio);
+            // as métricas de latência não vão para o diário: contam a partir da retomada
+            for (SimuladorSO.Processo p : processos) p.desde = relogio;
+            // cada bloqueado volta ao seu dispositivo; serviço geométrico não tem memória, então
+            // reenviar a requisição a partir de agora é exato
+            for (int i = 0; i < bloqueados.tamanho(); i++) {
+                SimuladorSO.Processo p = processos.get(bloqueados.get(i));
+                if (p.dispositivo >= dispositivos.length)
+                    throw new IOException("Diário tem E/S no dispositivo " + p.dispositivo + ", o motor só tem "
+                                          + dispositivos.length);
+                iniciarES(p);
+            }
+            if (log.ativo(RegistroEventos.RESUMO))
+                System.out.println("=== Simulação retomada na rodada " + rodada + " (t=" + relogio + ") ===");
+        } else {
+            for (SimuladorSO.Processo p : processos) {
+                p.chegada = relogio;
+                p.desde = relogio;
+                escalonador.aoChegar(p);
+                escalonador.enfileirar(p);
+            }
+            if (fonte != null) chegando = fonte.proximo();
+            if (diario != null) diario.reiniciar();
+            if (log.ativo(RegistroEventos.RESUMO))
+                System.out.println("=== Simulação iniciada (" + escalonador.nome() + ") ===");
+        }
+        salvarTabela();
+        if (diario != null) diario.checkpoint(rodada, terminados, relogio, escalonador, bloqueados, processos);
+        if (log.ativo(RegistroEventos.RESUMO)) SimuladorSO.imprimirEstado(processos, "Estado inicial");
+    }
+
+    // ========================
+    // LAÇO PRINCIPAL
+    // ========================
+    public void executar() throws IOException {
+        while (passo()) {
+        }
+        log.aguardar();
+        if (log.ativo(RegistroEventos.RESUMO)) {
+            System.out.println("=== Simulação finalizada em t=" + relogio + " ===");
+            SimuladorSO.imprimirEstado(processos, "Estado final");
+            Dispositivo.imprimir(dispositivos, relogio);
+            metricas.imprimir();
+        }
+    }
+
+    // trata o próximo evento (despachando antes, se a CPU estiver livre); false quando acabou.
+    // Sozinho serve para avançar uma simulação já iniciada aos poucos (ex.: BenchmarkSO)
+    boolean passo() throws IOException {
+        if (terminados >= processos.size() + admitidos && chegando == null) return false;
+        if (executando == null && (retomado != null || escalonador.tamanho() > 0)) despachar();
+
+        Evento e;
+        while ((e = eventos.peek()) != null && e.tipo == FIM_FATIA && e.seq != seqFatia)
+            eventos.poll(); // fatia cancelada por preempção
+        long tEvento = e == null ? Long.MAX_VALUE : e.tempo;
+        long tRoda = roda.proximoVencimento();
+        long tChegada = chegando == null ? Long.MAX_VALUE : chegando.chegada;
+        if (tEvento == Long.MAX_VALUE && tRoda == Long.MAX_VALUE && tChegada == Long.MAX_VALUE)
+            return false; // nada pronto, nada bloqueado, nada por chegar
+
+        if (tChegada <= tRoda && tChegada <= tEvento) {
+            relogio = Math.max(relogio, tChegada);
+            admitir();
+        } else if (tRoda <= tEvento) {
+            // baldes de nível alto dão só um limite inferior; com a roda acompanhando o relógio ele
+            // não fica para trás, o max só garante que o relógio nunca volta
+            relogio = Math.max(relogio, tRoda);
+            roda.avancar(relogio, concluidos::add);
+            if (concluidos.size() > 1) concluidos.sort(POR_SEQ_SERVICO); // independe do formato da roda
+            for (int i = 0; i < concluidos.size(); i++) concluirES(concluidos.get(i));
+            concluidos.clear();
+        } else {
+            eventos.poll();
+            relogio = e.tempo;
+            // nada na roda vence antes de tRoda > relogio; avançar só acerta os níveis, para que os
+            // baldes das E/S agendadas daqui em diante nunca comecem antes do relógio
+            roda.avancar(relogio, concluidos::add);
+            concluirFatia();
+            if (log.ativo(RegistroEventos.DETALHE) && rodada % 5 == 0)
+                log.registrarTabela(RegistroEventos.DETALHE, processos, rodada, relogio);
+        }
+
+        if (monitor != null)
+            monitor.publicar(rodada, relogio, escalonador.tamanho(), bloqueados.tamanho(), terminados);
+        if (diario != null && diario.precisaCheckpoint())
+            diario.checkpoint(rodada, terminados, relogio, escalonador, bloqueados, processos);
+        if (instantaneos != null && rodada >= proximoInstantaneo) {
+            instantaneos.enviar(instantaneo());
+            proximoInstantaneo = rodada + instantaneoCada;
+        }
+        return true;
+    }
+
+    // PRONTO -> EXECUTANDO e agenda o fim da fatia
+    private void despachar() throws IOException {
+        SimuladorSO.Processo p;
+        if (retomado != null) {
+            // despacho de antes da queda: rodada, ncpu, diário e escalonador já o contam
+            p = retomado;
+            retomado = null;
+        } else {
+            p = escalonador.proximo();
+            restaurarProcesso(p);
+            if (p.estado == SimuladorSO.Estado.TERMINADO) return;
+            rodada++;
+            p.estado = SimuladorSO.Estado.EXECUTANDO;
+            p.ncpu++;
+            salvarProcesso(p);
+        }
+        metricas.aoDespachar(p, relogio);
+        if (monitor != null) monitor.aoDespachar(p.pid);
+        log.registrar(RegistroEventos.EVENTOS, RegistroEventos.DESPACHO, p.pid, relogio, rodada);
+
+        // ciclo (1, 2, ...) em que ocorreria a próxima E/S; no ciclo em que o
+        // tempo acaba, terminar tem precedência sobre a E/S, como no laço original
+        long quantum = escalonador.quantum(p);
+        long cicloES;
+        if (p.rajadas == null) cicloES = amostrarGeometrica(logNaoES);
+        else cicloES = p.rajada + 1 < p.rajadas.length ? p.rajadaRestante : Long.MAX_VALUE; // última rajada: sem E/S
+        if (cicloES <= quantum && cicloES < p.tempoRestante) {
+            duracaoFatia = cicloES;
+            resultadoFatia = SimuladorSO.Estado.BLOQUEADO;
+        } else if (p.tempoRestante <= quantum) {
+            duracaoFatia = p.tempoRestante;
+            resultadoFatia = SimuladorSO.Estado.TERMINADO;
+        } else {
+            duracaoFatia = quantum;
+            resultadoFatia = SimuladorSO.Estado.PRONTO;
+        }
+        executando = p;
+        inicioFatia = relogio;
+        seqFatia = seqEventos++;
+        eventos.add(new Evento(relogio + duracaoFatia, seqFatia, FIM_FATIA, p.pid));
+    }
+
+    private void concluirFatia() throws IOException {
+        SimuladorSO.Processo p = executando;
+        executando = null;
+        p.cp += duracaoFatia;
+        p.tempoRestante -= duracaoFatia;
+        p.rajadaRestante -= duracaoFatia;
+        p.estado = resultadoFatia;
+
+        switch (resultadoFatia) {
+            case TERMINADO:
+                terminados++;
+                escalonador.aoTerminar(p, duracaoFatia);
+                metricas.aoTerminar(p, relogio);
+                log.registrar(RegistroEventos.EVENTOS, RegistroEventos.TERMINOU, p.pid, relogio, 0);
+                break;
+            case BLOQUEADO:
+                escalonador.aoBloquear(p, duracaoFatia);
+                p.nes++;
+                p.desde = relogio;
+                bloqueados.adicionar(p.pid);
+                if (p.rajadas != null) {
+                    p.rajada += 2; // a E/S é p.rajadas[p.rajada - 1]
+                    p.rajadaRestante = p.rajadas[p.rajada];
+                }
+                p.dispositivo = rand.nextInt(dispositivos.length);
+                iniciarES(p);
+                log.registrar(RegistroEventos.EVENTOS, RegistroEventos.FEZ_ES, p.pid, relogio, p.nes);
+                break;
+            default:
+                escalonador.aoExpirarQuantum(p, duracaoFatia);
+                p.desde = relogio;
+                escalonador.enfileirar(p);
+                log.registrar(RegistroEventos.EVENTOS, RegistroEventos.FIM_QUANTUM, p.pid, relogio, 0);
+        }
+        salvarProcesso(p);
+    }
+
+    private void desbloquear(SimuladorSO.Processo p) throws IOException {
+        bloqueados.remover(p.pid);
+        p.estado = SimuladorSO.Estado.PRONTO;
+        p.bloqueadoTotal += relogio - p.desde;
+        p.desde = relogio;
+        escalonador.enfileirar(p);
+        log.registrar(RegistroEventos.EVENTOS, RegistroEventos.DESBLOQUEIO, p.pid, relogio, 0);
+        salvarProcesso(p);
+
+        if (executando != null && escalonador.devePreemptar(p, executando, relogio - inicioFatia))
+            preemptar();
+    }
+
+    // processos do trace cuja chegada já foi alcançada entram no escalonador
+    private void admitir() throws IOException {
+        while (chegando != null && chegando.chegada <= relogio) {
+            SimuladorSO.Processo p = chegando;
+            chegando = fonte.proximo();
+            admitidos++;
+            p.desde = relogio;
+            escalonador.aoChegar(p);
+            escalonador.enfileirar(p);
+            log.registrar(RegistroEventos.EVENTOS, RegistroEventos.CHEGADA, p.pid, relogio, p.prioridade);
+            if (executando != null && escalonador.devePreemptar(p, executando, relogio - inicioFatia))
+                preemptar();
+        }
+    }
+
+    // interrompe a fatia em andamento no instante atual; o evento FIM_FATIA vira lixo
+    private void preemptar() throws IOException {
+        SimuladorSO.Processo p = executando;
+        long usado = relogio - inicioFatia;
+        executando = null;
+        seqFatia = -1;
+        p.cp += usado;
+        p.tempoRestante -= usado;
+        p.rajadaRestante -= usado;
+        p.estado = SimuladorSO.Estado.PRONTO;
+        escalonador.aoPreemptar(p, usado);
+        p.desde = relogio;
+        escalonador.enfileirar(p);
+        log.registrar(RegistroEventos.EVENTOS, RegistroEventos.PREEMPCAO, p.pid, relogio, 0);
+        salvarProcesso(p);
+    }
+
+    // ========================
+    // DISPOSITIVOS
+    // ========================
+    private void iniciarES(SimuladorSO.Processo p) {
+        Dispositivo d = dispositivos[p.dispositivo];
+        if (d.requisitar(p, relogio)) agendarFimServico(d, p);
+    }
+
+    private void agendarFimServico(Dispositivo d, SimuladorSO.Processo p) {
+        long servico = p.rajadas != null ? p.rajadas[p.rajada - 1]
+                                         : amostrarGeometrica(Math.log1p(-1.0 / d.tempoServico));
+        p.fimServico = relogio + servico;
+        p.seqServico = seqServicos++;
+        roda.agendar(p.fimServico, p, concluidos::add);
+    }
+
+    // fim da E/S: o dispositivo puxa o próximo da fila e o processo volta a PRONTO
+    private void concluirES(SimuladorSO.Processo p) throws IOException {
+        Dispositivo d = dispositivos[p.dispositivo];
+        p.fimServico = -1;
+        SimuladorSO.Processo prox = d.concluir(relogio);
+        if (prox != null) agendarFimServico(d, prox);
+        desbloquear(p);
+    }
+
+    // nº de tentativas até o primeiro sucesso, com P(falha) = exp(logFalha)
+    private long amostrarGeometrica(double logFalha) {
+        if (logFalha == 0) return Long.MAX_VALUE / 2; // probabilidade zero: nunca acontece
+        double k = Math.floor(Math.log1p(-rand.nextDouble()) / logFalha);
+        return k >= Long.MAX_VALUE / 4 ? Long.MAX_VALUE / 4 : 1 + (long) k;
+    }
+
+    // ========================
+    // PERSISTÊNCIA
+    // ========================
+    private void salvarTabela() {
+        if (tabela == null) return;
+        for (SimuladorSO.Processo p : processos) tabela.gravar(p);
+    }
+
+    private void salvarProcesso(SimuladorSO.Processo p) throws IOException {
+        if (tabela != null) tabela.gravar(p);
+        if (diario != null) diario.registrar(p, rodada, relogio);
+    }
+
+    private void restaurarProcesso(SimuladorSO.Processo p) {
+        if (tabela != null) tabela.restaurar(p);
+    }
+
+    // ========================
+    // INSTANTÂNEOS
+    // ========================
+    /**
+     * Estado completo do motor em bytes. Chamado no laço entre dois eventos;
+     * o array devolvido é uma cópia e pode ser gravado por outra thread.
+     * A captura em si é O(n) no laço (cerca de 0,15 µs por processo, puts
+     * diretos em {@link SaidaBytes}); uma visão copy-on-write exigiria
+     * estruturas persistentes em processos, filas, dispositivos e métricas.
+     * Só vale para a lista fixa de processos (não para traces) e com um
+     * {@link GeradorSplitMix}, cujo estado dá para ler.
+     */
+    public byte[] instantaneo() throws IOException {
+        if (fonte != null) throw new IllegalStateException("Instantâneo não suporta carga de trace");
+        if (!(rand instanceof GeradorSplitMix)) throw new IllegalStateException("Instantâneo exige GeradorSplitMix");
+        SaidaBytes out = saidaInstantaneo;
+        out.reiniciar(256 + processos.size() * 160);
+        out.writeInt(MAGICO_INSTANTANEO);
+        out.writeInt(VERSAO_INSTANTANEO);
+        out.writeLong(relogio);
+        out.writeInt(rodada);
+        out.writeInt(terminados);
+        out.writeLong(seqEventos);
+        out.writeLong(seqServicos);
+        out.writeLong(((GeradorSplitMix) rand).estado());
+
+        // fatia em andamento: o único FIM_FATIA válido na fila de eventos
+        out.writeInt(executando == null ? -1 : executando.pid);
+        out.writeLong(inicioFatia);
+        out.writeLong(seqFatia);
+        out.writeLong(duracaoFatia);
+        out.writeByte(resultadoFatia == null ? -1 : resultadoFatia.ordinal());
+
+        List<Integer> prontos = escalonador.pids(); // antes de gravar os processos (ver Escalonador.pids)
+        out.writeInt(processos.size());
+        for (SimuladorSO.Processo p : processos) p.gravar(out);
+
+        out.writeUTF(escalonador.nome());
+        long[] interno = escalonador.estadoInterno();
+        out.writeInt(interno.length);
+        for (long v : interno) out.writeLong(v);
+        out.writeInt(prontos.size());
+        for (int pid : prontos) out.writeInt(pid);
+
+        out.writeInt(bloqueados.tamanho());
+        for (int i = 0; i < bloqueados.tamanho(); i++) out.writeInt(bloqueados.get(i));
+        out.writeInt(dispositivos.length);
+        for (Dispositivo d : dispositivos) d.gravar(out);
+        metricas.gravar(out);
+        return out.copia();
+    }
+
+    /**
+     * Carrega um instantâneo no lugar de {@link #iniciar}. O motor deve ter
+     * sido criado com os mesmos processos e dispositivos; com o mesmo
+     * escalonador a continuação é idêntica. Um escalonador diferente recebe
+     * os mesmos prontos (um desvio "e se"), sem o estado interno do original.
+     */
+    public void restaurarInstantaneo(byte[] dados) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(dados));
+        if (in.readInt() != MAGICO_INSTANTANEO) throw new IOException("Não é um instantâneo do simulador");
+        int versao = in.readInt();
+        if (versao != VERSAO_INSTANTANEO) throw new IOException("Versão de instantâneo não suportada: " + versao);
+        if (!(rand instanceof GeradorSplitMix)) throw new IllegalStateException("Instantâneo exige GeradorSplitMix");
+        relogio = in.readLong();
+        rodada = in.readInt();
+        terminados = in.readInt();
+        seqEventos = in.readLong();
+        seqServicos = in.readLong();
+        ((GeradorSplitMix) rand).restaurar(in.readLong());
+
+        int pidExecutando = in.readInt();
+        inicioFatia = in.readLong();
+        seqFatia = in.readLong();
+        duracaoFatia = in.readLong();
+        int resultado = in.readByte();
+        resultadoFatia = resultado < 0 ? null : SimuladorSO.Estado.values()[resultado];
+
+        int n = in.readInt();
+        if (n != processos.size()) throw new IOException("Instantâneo tem " + n + " processos, o motor " + processos.size());
+        for (SimuladorSO.Processo p : processos) p.ler(in);
+
+        String politica = in.readUTF();
+        long[] interno = new long[in.readInt()];
+        for (int i = 0; i < interno.length; i++) interno[i] = in.readLong();
+        if (politica.equals(escalonador.nome())) escalonador.restaurarEstado(interno);
+        for (int i = in.readInt(); i > 0; i--) escalonador.enfileirar(processos.get(in.readInt()));
+
+        bloqueados.limpar();
+        for (int i = in.readInt(); i > 0; i--) bloqueados.adicionar(in.readInt());
+        if (in.readInt() != dispositivos.length) throw new IOException("Instantâneo tem outro nº de dispositivos");
+        for (Dispositivo d : dispositivos) d.ler(in, processos);
+        metricas.ler(in);
+
+        eventos.clear();
+        executando = pidExecutando < 0 ? null : processos.get(pidExecutando);
+        if (executando != null) eventos.add(new Evento(inicioFatia + duracaoFatia, seqFatia, FIM_FATIA, pidExecutando));
+        roda = new RodaTemporizadores<>(relogio);
+        for (SimuladorSO.Processo p : processos)
+            if (p.fimServico >= 0) roda.agendar(p.fimServico, p, concluidos::add);
+        proximoInstantaneo = rodada + instantaneoCada;
+
+        salvarTabela();
+        if (diario != null) {
+            diario.reiniciar();
+            diario.checkpoint(rodada, terminados, relogio, escalonador, bloqueados, processos);
+        }
+        if (log.ativo(RegistroEventos.RESUMO))
+            System.out.println("=== Instantâneo restaurado na rodada " + rodada + " (t=" + relogio + ") ===");
+    }
+
+    /**
+     * DataOutput sobre um ByteBuffer de heap reaproveitado entre instantâneos.
+     * Mesmo formato do DataOutputStream (big-endian, writeUTF modificado),
+     * mas cada campo é um put direto no vetor, sem as chamadas sincronizadas
+     * byte a byte do ByteArrayOutputStream.
+     */
+    static final class SaidaBytes implements DataOutput {
+        private ByteBuffer buf = ByteBuffer.allocate(256);
+
+        void reiniciar(int previsto) {
+            if (buf.capacity() < previsto) buf = ByteBuffer.allocate(previsto);
+            buf.clear();
+        }
+
+        // cópia do que foi escrito: o vetor interno continua com o motor
+        byte[] copia() {
+            return Arrays.copyOf(buf.array(), buf.position());
+        }
+
+        private ByteBuffer espaco(int n) {
+            if (buf.remaining() < n) {
+                ByteBuffer maior = ByteBuffer.allocate(Math.max(buf.capacity() * 2, buf.position() + n));
+                buf.flip();
+                maior.put(buf);
+                buf = maior;
+            }
+            return buf;
+        }
+
+        @Override public void write(int b) { espaco(1).put((byte) b); }
+        @Override public void write(byte[] b) { write(b, 0, b.length); }
+        @Override public void write(byte[] b, int de, int n) { espaco(n).put(b, de, n); }
+        @Override public void writeBoolean(boolean v) { write(v ? 1 : 0); }
+        @Override public void writeByte(int v) { write(v); }
+        @Override public void writeShort(int v) { espaco(2).putShort((short) v); }
+        @Override public void writeChar(int v) { espaco(2).putChar((char) v); }
+        @Override public void writeInt(int v) { espaco(4).putInt(v); }
+        @Override public void writeLong(long v) { espaco(8).putLong(v); }
+        @Override public void writeFloat(float v) { espaco(4).putFloat(v); }
+        @Override public void writeDouble(double v) { espaco(8).putDouble(v); }
+
+        @Override
+        public void writeBytes(String s) {
+            for (int i = 0; i < s.length(); i++) write(s.charAt(i));
+        }
+
+        @Override
+        public void writeChars(String s) {
+            for (int i = 0; i < s.length(); i++) writeChar(s.charAt(i));
+        }
+
+        // raro (nome da política): o DataOutputStream faz a codificação
+        @Override
+        public void writeUTF(String s) throws IOException {
+            ByteArrayOutputStream b = new ByteArrayOutputStream(s.length() + 2);
+            new DataOutputStream(b).writeUTF(s);
+            write(b.toByteArray());
+        }
+    }
+
+    public MetricasEscalonador metricas() {
+        return metricas;
+    }
+
+    public long relogio() {
+        return relogio;
+    }
+
+    public int rodada() {
+        return rodada;
+    }
+}
@@ -0,0 +1,13 @@
+// bloco pedido ao GerenciamentoMemoria (e aos outros alocadores)
+class Processo {
+    String id;
+    int tamanho;
+    int inicio; // índice onde começou a alocação (-1 = não alocado)
+    boolean fixo; // a compactação não move (ex.: slabs do AlocadorSlab, que guardam endereços)
+
+    Processo(String id, int tamanho) {
+        this.id = id;
+        this.tamanho = tamanho;
+        this.inicio = -1;
+    }
+}
@@ -0,0 +1,209 @@
+import java.io.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Registro assíncrono dos eventos do escalonador.
+ *
+ * O laço do motor só grava registros binários de tamanho fixo (5 longs) em
+ * um buffer circular sem trava; uma thread de fundo lê o buffer, monta o
+ * texto e escreve no console ou em arquivo. Com o nível abaixo do da
+ * mensagem, {@link #registrar} volta na primeira comparação e nenhuma
+ * string é montada.
+ *
+ * O buffer é de um produtor só (o laço do motor) e um consumidor só (a
+ * thread de fundo). Se o consumidor ficar para trás e o buffer encher, o
+ * produtor espera: o registro não perde eventos.
+ *
+ * Registro: tempo | tipo(8 bits) aux(24 bits) pid(32 bits) | a | b | c
+ */
+public class RegistroEventos implements Closeable {
+
+    // níveis
+    static final int DESLIGADO = 0;
+    static final int RESUMO = 1;   // início, fim e tabelas inicial/final
+    static final int EVENTOS = 2;  // despacho, E/S, fim de quantum, término, desbloqueio, chegada
+    static final int DETALHE = 3;  // tabela completa a cada 5 rodadas
+
+    // tipos de registro
+    static final int DESPACHO = 1;
+    static final int FEZ_ES = 2;
+    static final int FIM_QUANTUM = 3;
+    static final int TERMINOU = 4;
+    static final int DESBLOQUEIO = 5;
+    static final int PREEMPCAO = 6;
+    static final int TABELA_INICIO = 7;
+    static final int TABELA_LINHA = 8;
+    static final int TABELA_FIM = 9;
+    static final int CHEGADA = 10;
+
+    private static final int CAMPOS = 5;
+
+    final int nivel;
+    private final long[] buffer;
+    private final int mascara;
+    private final PrintStream saida;
+    private final boolean fecharSaida;
+    private final Thread consumidor;
+
+    private final AtomicLong publicado = new AtomicLong(); // escrito pelo produtor
+    private final AtomicLong consumido = new AtomicLong(); // escrito pelo consumidor
+    private long proximo;       // só o produtor
+    private long consumidoVisto; // só o produtor
+    private volatile boolean parar;
+
+    public RegistroEventos(int nivel, int capacidade, PrintStream saida, boolean fecharSaida) {
+        if (Integer.bitCount(capacidade) != 1) throw new IllegalArgumentException("Capacidade deve ser potência de 2");
+        this.nivel = nivel;
+        this.buffer = new long[capacidade * CAMPOS];
+        this.mascara = capacidade - 1;
+        this.saida = saida;
+        this.fecharSaida = fecharSaida;
+        this.consumidor = new Thread(this::consumir, "registro-eventos");
+        consumidor.setDaemon(true);
+        if (nivel > DESLIGADO) consumidor.start();
+    }
+
+    public static RegistroEventos console(int nivel) {
+        return new RegistroEventos(nivel, 1 << 16, System.out, false);
+    }
+
+    public static RegistroEventos arquivo(int nivel, String caminho) throws IOException {
+        PrintStream ps = new PrintStream(new BufferedOutputStream(new FileOutputStream(caminho), 1 << 16), false);
+        return new RegistroEventos(nivel, 1 << 16, ps, true);
+    }
+
+    public static RegistroEventos desligado() {
+        return new RegistroEventos(DESLIGADO, 1, System.out, false);
+    }
+
+    public boolean ativo(int nivelMsg) {
+        return nivelMsg <= nivel;
+    }
+
+    // ========================
+    // PRODUTOR
+    // ========================
+    public void registrar(int nivelMsg, int tipo, int aux, int pid, long tempo, long a, long b, long c) {
+        if (nivelMsg > nivel) return;
+        long seq = proximo;
+        if (seq - consumidoVisto > mascara) {
+            while (seq - (consumidoVisto = consumido.get()) > mascara) Thread.onSpinWait();
+        }
+        int i = (int) (seq & mascara) * CAMPOS;
+        buffer[i] = tempo;
+        buffer[i + 1] = ((long) tipo << 56) | ((long) (aux & 0xFFFFFF) << 32) | (pid & 0xFFFFFFFFL);
+        buffer[i + 2] = a;
+        buffer[i + 3] = b;
+        buffer[i + 4] = c;
+        proximo = seq + 1;
+        publicado.lazySet(seq + 1); // publica depois de preencher o registro
+    }
+
+    public void registrar(int nivelMsg, int tipo, int pid, long tempo, long a) {
+        registrar(nivelMsg, tipo, 0, pid, tempo, a, 0, 0);
+    }
+
+    // tabela completa como registros, para não embaralhar com os eventos na saída
+    public void registrarTabela(int nivelMsg, java.util.List<SimuladorSO.Processo> processos, int rodada, long tempo) {
+        if (nivelMsg > nivel) return;
+        registrar(nivelMsg, TABELA_INICIO, 0, 0, tempo, rodada, 0, 0);
+        for (SimuladorSO.Processo p : processos) {
+            registrar(nivelMsg, TABELA_LINHA, p.estado.ordinal(), p.pid, tempo, p.tempoRestante, p.cp,
+                      ((long) p.nes << 32) | (p.ncpu & 0xFFFFFFFFL));
+        }
+        registrar(nivelMsg, TABELA_FIM, 0, 0, tempo, 0, 0, 0);
+    }
+
+    // espera a thread de fundo esvaziar o buffer (antes de imprimir direto na saída)
+    public void aguardar() {
+        if (!consumidor.isAlive()) return;
+        while (consumido.get() < proximo) {
+            LockSupport.unpark(consumidor);
+            Thread.onSpinWait();
+        }
+        saida.flush();
+    }
+
+    @Override
+    public void close() {
+        aguardar();
+        parar = true;
+        LockSupport.unpark(consumidor);
+        try {
+            consumidor.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        saida.flush();
+        if (fecharSaida) saida.close();
+    }
+
+    // ========================
+    // CONSUMIDOR
+    // ========================
+    private void consumir() {
+        StringBuilder sb = new StringBuilder(256);
+        SimuladorSO.Estado[] estados = SimuladorSO.Estado.values();
+        long lido = 0;
+        while (true) {
+            long disponivel = publicado.get();
+            if (lido == disponivel) {
+                if (parar) return;
+                saida.flush();
+                LockSupport.parkNanos(1_000_000);
+                continue;
+            }
+            for (; lido < disponivel; lido++) {
+                int i = (int) (lido & mascara) * CAMPOS;
+                long cab = buffer[i + 1];
+                sb.setLength(0);
+                formatar(sb, estados, buffer[i], (int) (cab >>> 56), (int) ((cab >>> 32) & 0xFFFFFF), (int) cab,
+                         buffer[i + 2], buffer[i + 3], buffer[i + 4]);
+                saida.println(sb);
+                if ((lido & 255) == 255) consumido.lazySet(lido + 1);
+            }
+            consumido.lazySet(lido);
+        }
+    }
+
+    private static void formatar(StringBuilder sb, SimuladorSO.Estado[] estados, long tempo, int tipo, int aux,
+                                 int pid, long a, long b, long c) {
+        switch (tipo) {
+            case DESPACHO:
+                sb.append("[Rodada ").append(a).append(" t=").append(tempo).append("] Executando PID ").append(pid);
+                break;
+            case FEZ_ES:
+                sb.append("  -> PID ").append(pid).append(" fez E/S (NES=").append(a).append(')');
+                break;
+            case FIM_QUANTUM:
+                sb.append("  -> PID ").append(pid).append(" terminou o quantum → PRONTO");
+                break;
+            case TERMINOU:
+                sb.append("  -> PID ").append(pid).append(" terminou.");
+                break;
+            case DESBLOQUEIO:
+                sb.append("[t=").append(tempo).append("] Desbloqueado: PID ").append(pid);
+                break;
+            case PREEMPCAO:
+                sb.append("  -> PID ").append(pid).append(" sofreu preempção → PRONTO");
+                break;
+            case CHEGADA:
+                sb.append("[t=").append(tempo).append("] Chegou: PID ").append(pid).append(" (prioridade ").append(a).append(')');
+                break;
+            case TABELA_INICIO:
+                sb.append("\n==== Após rodada ").append(a).append(" (t=").append(tempo).append(") ====\n")
+                  .append(SimuladorSO.Processo.cabecalho());
+                break;
+            case TABELA_LINHA:
+                sb.append(pid).append('\t').append(a).append('\t').append(b).append('\t').append(estados[aux])
+                  .append('\t').append(c >>> 32).append('\t').append((int) c);
+                break;
+            case TABELA_FIM:
+                sb.append("===========================\n");
+                break;
+            default:
+                sb.append("[t=").append(tempo).append("] evento ").append(tipo).append(" PID ").append(pid);
+        }
+    }
+}
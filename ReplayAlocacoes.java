@@ -0,0 +1,220 @@
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Reproduz um trace de alocações no {@link GerenciamentoMemoria}, uma vez
+ * por estratégia, para comparar as estratégias numa carga de verdade.
+ *
+ * Trace em texto, uma operação por linha (espaço, tab ou vírgula separam os
+ * campos; linhas vazias ou começando com '#' são ignoradas):
+ *
+ *   a id tamanho     aloca "tamanho" unidades para o bloco "id"
+ *   f id             libera o bloco "id"
+ *
+ * O id é qualquer palavra (um endereço de log de malloc serve). Liberar um
+ * id cuja alocação falhou, ou que não existe, só conta como ignorada.
+ *
+ * Cada estratégia roda numa thread própria, com sua cópia da memória e sua
+ * própria leitura do arquivo: nada é compartilhado, e a memória usada é
+ * proporcional aos blocos vivos, não ao tamanho do trace. Por estratégia:
+ * alocações por segundo (só o tempo dentro do fit), taxa de falhas, pico de
+ * fragmentação (1 - maior buraco / livre e o índice de
+ * {@link IndiceBuracos#indiceFragmentacao}) e o custo da busca. Como os fits
+ * usam o índice de buracos em vez de varrer a memória, o custo é medido em
+ * nós do índice olhados por alocação, não em unidades varridas.
+ *
+ * uso: java ReplayAlocacoes trace.txt [--tamanho 65536] [--estrategias firstFit,bestFit,...]
+ *      java ReplayAlocacoes --gerar trace.txt [operacoes] [tamanho]
+ */
+public class ReplayAlocacoes {
+
+    static class Resultado {
+        final String nome;
+        long pedidos, falhas, liberacoes, ignoradas, nanos, custoBusca, picoOcupadas;
+        double picoFragmentacao, picoIndice;
+
+        Resultado(String nome) {
+            this.nome = nome;
+        }
+    }
+
+    // ========================
+    // REPRODUÇÃO
+    // ========================
+    static Resultado reproduzir(Path trace, int tamanho, String nome, GerenciamentoMemoria.Estrategia alg) throws IOException {
+        GerenciamentoMemoria gm = new GerenciamentoMemoria(tamanho);
+        gm.verboso = false;
+        Resultado r = new Resultado(nome);
+        Map<String, Processo> vivos = new HashMap<>();
+        String[] campos = new String[3];
+        long numLinha = 0;
+        try (BufferedReader entrada = Files.newBufferedReader(trace, StandardCharsets.UTF_8)) {
+            String linha;
+            while ((linha = entrada.readLine()) != null) {
+                numLinha++;
+                int n = separar(linha, campos);
+                if (n == 0 || campos[0].charAt(0) == '#') continue;
+                String op = campos[0];
+                if (op.equals("a") && n == 3) {
+                    int t;
+                    try {
+                        t = Integer.parseInt(campos[2]);
+                    } catch (NumberFormatException e) {
+                        throw new IOException(trace + ":" + numLinha + ": tamanho inválido");
+                    }
+                    Processo p = new Processo(campos[1], t);
+                    r.pedidos++;
+                    long t0 = System.nanoTime();
+                    boolean ok = alg.alocar(gm, p);
+                    r.nanos += System.nanoTime() - t0;
+                    if (ok) {
+                        Processo antigo = vivos.put(p.id, p);
+                        if (antigo != null) gm.desalocar(antigo); // id reaproveitado sem free: o bloco velho se perdeu
+                    } else {
+                        r.falhas++;
+                    }
+                } else if (op.equals("f") && n == 2) {
+                    Processo p = vivos.remove(campos[1]);
+                    if (p == null) {
+                        r.ignoradas++;
+                        continue;
+                    }
+                    gm.desalocar(p);
+                    r.liberacoes++;
+                } else {
+                    throw new IOException(trace + ":" + numLinha + ": esperado \"a id tamanho\" ou \"f id\"");
+                }
+                // tudo O(1): o índice mantém maior buraco, livre e soma dos quadrados
+                r.picoFragmentacao = Math.max(r.picoFragmentacao, gm.fragmentacaoMaiorBuraco());
+                r.picoIndice = Math.max(r.picoIndice, gm.indiceFragmentacao());
+                r.picoOcupadas = Math.max(r.picoOcupadas, gm.ocupadas.ler());
+            }
+        }
+        r.custoBusca = gm.custoBusca;
+        return r;
+    }
+
+    // até campos.length campos separados por espaço, tab ou vírgula; devolve quantos (mais que
+    // campos.length conta como inválido)
+    static int separar(String linha, String[] campos) {
+        int n = 0, i = 0, len = linha.length();
+        while (i < len) {
+            while (i < len && separador(linha.charAt(i))) i++;
+            if (i == len) break;
+            int j = i;
+            while (j < len && !separador(linha.charAt(j))) j++;
+            if (n == campos.length) return n + 1;
+            campos[n++] = linha.substring(i, j);
+            i = j;
+        }
+        return n;
+    }
+
+    private static boolean separador(char c) {
+        return c == ' ' || c == '\t' || c == ',' || c == '\r';
+    }
+
+    // as estratégias em paralelo, cada uma na sua thread
+    static List<Resultado> comparar(Path trace, int tamanho, List<String> estrategias) throws Exception {
+        ExecutorService exec = Executors.newFixedThreadPool(
+                Math.max(1, Math.min(estrategias.size(), Runtime.getRuntime().availableProcessors())));
+        try {
+            List<Future<Resultado>> futuros = new ArrayList<>();
+            for (String nome : estrategias) {
+                int i = Arrays.asList(GerenciamentoMemoria.NOMES_ESTRATEGIAS).indexOf(nome);
+                if (i < 0) throw new IllegalArgumentException("Estratégia desconhecida: " + nome);
+                futuros.add(exec.submit(() -> reproduzir(trace, tamanho, nome, GerenciamentoMemoria.ESTRATEGIAS[i])));
+            }
+            List<Resultado> resultados = new ArrayList<>();
+            for (Future<Resultado> f : futuros) {
+                try {
+                    resultados.add(f.get());
+                } catch (ExecutionException e) {
+                    if (e.getCause() instanceof IOException) throw (IOException) e.getCause();
+                    throw e;
+                }
+            }
+            return resultados;
+        } finally {
+            exec.shutdownNow();
+        }
+    }
+
+    static void imprimir(List<Resultado> resultados, int tamanho) {
+        System.out.printf("%-10s %12s %9s %13s %11s %12s %14s %13s%n", "Estratégia", "Pedidos", "Falhas", "Alocações/s",
+                          "Pico frag.", "Pico índice", "Pico ocupação", "Nós/alocação");
+        for (Resultado r : resultados) {
+            System.out.printf(Locale.ROOT, "%-10s %12d %8.3f%% %13.0f %11.3f %12.3f %13.1f%% %13.1f%n", r.nome,
+                              r.pedidos, r.pedidos == 0 ? 0 : 100.0 * r.falhas / r.pedidos,
+                              r.nanos == 0 ? 0 : r.pedidos * 1e9 / r.nanos, r.picoFragmentacao, r.picoIndice,
+                              100.0 * r.picoOcupadas / tamanho, r.pedidos == 0 ? 0 : (double) r.custoBusca / r.pedidos);
+        }
+        Resultado r = resultados.get(0);
+        System.out.println("Liberações: " + r.liberacoes + "  Ignoradas: " + r.ignoradas + " (na primeira estratégia)");
+    }
+
+    // ========================
+    // TRACE SINTÉTICO
+    // ========================
+    // tamanhos com cauda (80% 1..16, 15% 17..256, 5% 257..4096) e ocupação oscilando em torno de 60%
+    static void gerar(Path trace, long operacoes, int tamanho) throws IOException {
+        SplittableRandom rand = new SplittableRandom(42);
+        List<String> ids = new ArrayList<>();
+        List<Integer> tamanhos = new ArrayList<>();
+        long vivas = 0, proximoId = 0;
+        try (BufferedWriter saida = Files.newBufferedWriter(trace, StandardCharsets.UTF_8)) {
+            saida.write("# a id tamanho | f id\n");
+            for (long i = 0; i < operacoes; i++) {
+                boolean alocar = ids.isEmpty() || (vivas < 0.6 * tamanho ? rand.nextInt(10) < 7 : rand.nextInt(10) < 3);
+                if (alocar) {
+                    int r = rand.nextInt(100);
+                    int t = r < 80 ? 1 + rand.nextInt(16) : r < 95 ? 17 + rand.nextInt(240) : 257 + rand.nextInt(3840);
+                    String id = Long.toHexString(0x10000 + proximoId++);
+                    ids.add(id);
+                    tamanhos.add(t);
+                    vivas += t;
+                    saida.write("a " + id + " " + t + "\n");
+                } else {
+                    int k = rand.nextInt(ids.size());
+                    String id = ids.get(k);
+                    vivas -= tamanhos.get(k);
+                    int ultimo = ids.size() - 1;
+                    ids.set(k, ids.get(ultimo));
+                    tamanhos.set(k, tamanhos.get(ultimo));
+                    ids.remove(ultimo);
+                    tamanhos.remove(ultimo);
+                    saida.write("f " + id + "\n");
+                }
+            }
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length >= 2 && args[0].equals("--gerar")) {
+            long ops = args.length > 2 ? Long.parseLong(args[2]) : 1_000_000;
+            int tamanho = args.length > 3 ? Integer.parseInt(args[3]) : 65536;
+            gerar(Paths.get(args[1]), ops, tamanho);
+            System.out.println("Trace com " + ops + " operações em " + args[1]);
+            return;
+        }
+        if (args.length == 0) {
+            System.out.println("uso: java ReplayAlocacoes trace.txt [--tamanho 65536] [--estrategias firstFit,bestFit,...]");
+            System.out.println("     java ReplayAlocacoes --gerar trace.txt [operacoes] [tamanho]");
+            return;
+        }
+        Path trace = Paths.get(args[0]);
+        int tamanho = 65536;
+        List<String> estrategias = Arrays.asList(GerenciamentoMemoria.NOMES_ESTRATEGIAS);
+        for (int i = 1; i < args.length; i++) {
+            if (args[i].equals("--tamanho") && i + 1 < args.length) tamanho = Integer.parseInt(args[++i]);
+            else if (args[i].equals("--estrategias") && i + 1 < args.length) estrategias = Arrays.asList(args[++i].split(","));
+        }
+        long t0 = System.nanoTime();
+        List<Resultado> resultados = comparar(trace, tamanho, estrategias);
+        imprimir(resultados, tamanho);
+        System.out.printf(Locale.ROOT, "Tempo total: %.1f s%n", (System.nanoTime() - t0) / 1e9);
+    }
+}
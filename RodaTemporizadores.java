@@ -0,0 +1,144 @@
+import java.util.PriorityQueue;
+import java.util.function.Consumer;
+
+/**
+ * Roda de temporizadores hierárquica (hierarchical timing wheel).
+ *
+ * O nível 0 tem 64 baldes de 1 tique; cada nível acima tem 64 baldes com 64
+ * vezes a largura do anterior, criado só quando algum temporizador precisa
+ * dele. Um temporizador entra no nível mais baixo cujo intervalo o alcança
+ * e, quando o balde dele vence, desce (cascata) para um nível mais fino até
+ * chegar ao nível 0 e disparar. Cada temporizador desce no máximo uma vez
+ * por nível, então inserir e disparar custam O(1) amortizado,
+ * independentemente de quantos temporizadores estão pendentes.
+ *
+ * Para o motor de eventos poder saltar o relógio, os baldes não vazios ficam
+ * em um heap; como existem no máximo 64 baldes por nível, o heap tem tamanho
+ * limitado e não cresce com o número de temporizadores.
+ */
+public class RodaTemporizadores<T> {
+
+    static final int BITS = 6;
+    static final int BALDES = 1 << BITS;
+
+    private static class Temporizador<T> {
+        final long expira;
+        final T alvo;
+        Temporizador<T> prox;
+
+        Temporizador(long expira, T alvo) {
+            this.expira = expira;
+            this.alvo = alvo;
+        }
+    }
+
+    private static class Balde<T> implements Comparable<Balde<T>> {
+        long expiracao = -1; // início do intervalo coberto; -1 = fora do heap
+        Temporizador<T> cabeca;
+
+        @Override
+        public int compareTo(Balde<T> o) {
+            return Long.compare(expiracao, o.expiracao);
+        }
+    }
+
+    private class Nivel {
+        final long tique;
+        final long intervalo;
+        final Balde<T>[] baldes;
+        long atual; // múltiplo de tique
+        Nivel acima;
+
+        @SuppressWarnings("unchecked")
+        Nivel(long tique, long inicio) {
+            this.tique = tique;
+            this.intervalo = tique * BALDES;
+            this.atual = inicio - Math.floorMod(inicio, tique);
+            this.baldes = (Balde<T>[]) new Balde<?>[BALDES];
+            for (int i = 0; i < BALDES; i++) baldes[i] = new Balde<>();
+        }
+
+        // false se o temporizador já venceu neste nível (deve disparar ou descer)
+        boolean adicionar(Temporizador<T> t) {
+            if (t.expira < atual + tique) return false;
+            if (t.expira < atual + intervalo) {
+                long virtual = t.expira / tique;
+                Balde<T> b = baldes[(int) (virtual & (BALDES - 1))];
+                t.prox = b.cabeca;
+                b.cabeca = t;
+                long exp = virtual * tique;
+                if (b.expiracao != exp) {
+                    b.expiracao = exp;
+                    fila.add(b);
+                }
+                return true;
+            }
+            if (acima == null) {
+                if (intervalo > Long.MAX_VALUE / BALDES) throw new IllegalArgumentException("Prazo grande demais: " + t.expira);
+                acima = new Nivel(intervalo, atual);
+            }
+            return acima.adicionar(t);
+        }
+
+        void avancar(long tempo) {
+            if (tempo >= atual + tique) {
+                atual = tempo - Math.floorMod(tempo, tique);
+                if (acima != null) acima.avancar(atual);
+            }
+        }
+    }
+
+    private final PriorityQueue<Balde<T>> fila = new PriorityQueue<>();
+    private final Nivel base;
+    private int tamanho;
+
+    public RodaTemporizadores(long inicio) {
+        base = new Nivel(1, inicio);
+    }
+
+    // agenda "alvo" para o instante "expira"; se já venceu, dispara na hora
+    public void agendar(long expira, T alvo, Consumer<T> disparo) {
+        Temporizador<T> t = new Temporizador<>(expira, alvo);
+        tamanho++;
+        if (!base.adicionar(t)) {
+            tamanho--;
+            disparo.accept(alvo);
+        }
+    }
+
+    /**
+     * Instante do próximo balde a vencer, ou Long.MAX_VALUE se não houver
+     * nada pendente. Para baldes de nível alto é um limite inferior: ao
+     * chegar lá a roda só faz a cascata e o motor pergunta de novo.
+     */
+    public long proximoVencimento() {
+        Balde<T> b = fila.peek();
+        return b == null ? Long.MAX_VALUE : b.expiracao;
+    }
+
+    // avança até "tempo", disparando tudo o que vence até lá (em cascata)
+    public void avancar(long tempo, Consumer<T> disparo) {
+        Balde<T> b;
+        while ((b = fila.peek()) != null && b.expiracao <= tempo) {
+            fila.poll();
+            base.avancar(b.expiracao);
+            Temporizador<T> t = b.cabeca;
+            b.cabeca = null;
+            b.expiracao = -1;
+            while (t != null) {
+                Temporizador<T> prox = t.prox;
+                t.prox = null;
+                if (!base.adicionar(t)) {
+                    tamanho--;
+                    disparo.accept(t.alvo);
+                }
+                t = prox;
+            }
+        }
+        base.avancar(tempo);
+    }
+
+    public int tamanho() {
+        return tamanho;
+    }
+}
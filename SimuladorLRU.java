@@ -1,10 +1,15 @@
-public import java.util.*;
+import java.util.*;
 
 public class SimuladorLRU {
 
 
     static final int NUM_PAGINAS_SWAP = 100;
     static final int NUM_PAGINAS_RAM = 10;
+    static boolean verboso = true; // false nos benchmarks
+
+    // para o MonitorSimulacao (taxa de faltas), lidos de outra thread sem trava
+    static final MonitorSimulacao.Contador acessos = new MonitorSimulacao.Contador();
+    static final MonitorSimulacao.Contador faltas = new MonitorSimulacao.Contador();
 
     static class Pagina {
         int N; // Número da página
@@ -68,7 +73,8 @@ public class SimuladorLRU {
             LinkedList<Integer> historicoLRU,
             int instrucao) {
 
-        System.out.println("\n>>> Instrução sorteada: " + instrucao);
+        if (verboso) System.out.println("\n>>> Instrução sorteada: " + instrucao);
+        acessos.somar(1);
 
         // Procura instrução na RAM
         int posicao = -1;
@@ -82,7 +88,7 @@ public class SimuladorLRU {
         if (posicao != -1) {
             
             Pagina p = ram.get(posicao);
-            System.out.println("Instrução " + instrucao + " encontrada na RAM (posição " + posicao + ").");
+            if (verboso) System.out.println("Instrução " + instrucao + " encontrada na RAM (posição " + posicao + ").");
 
             p.R = 1;
 
@@ -92,16 +98,17 @@ public class SimuladorLRU {
             if (Math.random() < 0.5) {
                 p.D += 1;
                 p.M = 1;
-                System.out.println("Página modificada -> D=" + p.D + ", M=1");
+                if (verboso) System.out.println("Página modificada -> D=" + p.D + ", M=1");
             }
 
         } else {
             
-            System.out.println("Instrução " + instrucao + " não está na RAM. PAGE FAULT!");
+            if (verboso) System.out.println("Instrução " + instrucao + " não está na RAM. PAGE FAULT!");
+            faltas.somar(1);
 
             int posSubstituir = historicoLRU.removeFirst();
             Pagina removida = ram.get(posSubstituir);
-            System.out.println("Substituindo página N=" + removida.N + " (posição " + posSubstituir + ") via LRU.");
+            if (verboso) System.out.println("Substituindo página N=" + removida.N + " (posição " + posSubstituir + ") via LRU.");
 
             Pagina nova = swap.get(instrucao - 1);
             ram.set(posSubstituir, new Pagina(nova.N, nova.I, nova.D, nova.R, nova.M, nova.T));
@@ -0,0 +1,128 @@
+import java.util.SplittableRandom;
+
+/**
+ * Round Robin por eventos discretos sobre a {@link TabelaProcessosPrimitiva},
+ * para milhões de processos.
+ *
+ * Mesmo modelo do {@link MotorEventos} (E/S geométrica por ciclo, 30% de
+ * chance de desbloqueio por quantum), mas sem objetos: prontos e bloqueados
+ * são {@link FilaCircularInt} e o laço principal não aloca nada.
+ *
+ * Os desbloqueios não precisam de fila de eventos: com m processos
+ * bloqueados e chance h por ciclo para cada um, o próximo desbloqueio é
+ * geométrico com taxa m*h e o sorteado é qualquer um deles com a mesma
+ * probabilidade. Como a distribuição não tem memória, basta sortear de novo
+ * o instante sempre que m muda e retirar um bloqueado escolhido ao acaso
+ * (troca com a cabeça da fila em O(1)).
+ */
+public class SimuladorPrimitivo {
+
+    private final TabelaProcessosPrimitiva t;
+    private final FilaCircularInt prontos;
+    private final FilaCircularInt bloqueados;
+    private final int quantum;
+    private final double logNaoES;
+    private final double logNaoDesbloqueio;
+    private final SplittableRandom rand;
+
+    private long relogio;
+    private long rodadas;
+    private int terminados;
+    private long proximoDesbloqueio = Long.MAX_VALUE;
+
+    public SimuladorPrimitivo(TabelaProcessosPrimitiva tabela, int quantum, double probES,
+                              double probDesbloqueioPorQuantum, long semente) {
+        this.t = tabela;
+        this.prontos = new FilaCircularInt(tabela.tamanho());
+        this.bloqueados = new FilaCircularInt(tabela.tamanho());
+        this.quantum = quantum;
+        this.logNaoES = Math.log1p(-probES);
+        this.logNaoDesbloqueio = Math.log1p(-probDesbloqueioPorQuantum) / quantum;
+        this.rand = new SplittableRandom(semente);
+        for (int pid = 0; pid < tabela.tamanho(); pid++) prontos.adicionar(pid);
+    }
+
+    public void executar() {
+        int n = t.tamanho();
+        while (terminados < n) {
+            if (prontos.vazia()) {
+                if (bloqueados.vazia()) break;
+                relogio = proximoDesbloqueio; // CPU ociosa: pula direto para o desbloqueio
+                desbloquear();
+                continue;
+            }
+
+            int pid = prontos.retirar();
+            t.estado[pid] = TabelaProcessosPrimitiva.EXECUTANDO;
+            t.ncpu[pid]++;
+            rodadas++;
+
+            int restante = t.tempoRestante[pid];
+            long cicloES = amostrarGeometrica(logNaoES);
+            int duracao;
+            byte resultado;
+            if (cicloES <= quantum && cicloES < restante) {
+                duracao = (int) cicloES;
+                resultado = TabelaProcessosPrimitiva.BLOQUEADO;
+            } else if (restante <= quantum) {
+                duracao = restante;
+                resultado = TabelaProcessosPrimitiva.TERMINADO;
+            } else {
+                duracao = quantum;
+                resultado = TabelaProcessosPrimitiva.PRONTO;
+            }
+            long fimFatia = relogio + duracao;
+
+            // desbloqueios que acontecem durante a fatia entram na fila antes do processo atual
+            while (proximoDesbloqueio <= fimFatia) {
+                relogio = proximoDesbloqueio;
+                desbloquear();
+            }
+            relogio = fimFatia;
+
+            t.cp[pid] += duracao;
+            t.tempoRestante[pid] = restante - duracao;
+            t.estado[pid] = resultado;
+            if (resultado == TabelaProcessosPrimitiva.TERMINADO) {
+                terminados++;
+            } else if (resultado == TabelaProcessosPrimitiva.BLOQUEADO) {
+                t.nes[pid]++;
+                bloqueados.adicionar(pid);
+                reagendarDesbloqueio();
+            } else {
+                prontos.adicionar(pid);
+            }
+        }
+    }
+
+    private void desbloquear() {
+        bloqueados.trocarComCabeca(rand.nextInt(bloqueados.tamanho()));
+        int pid = bloqueados.retirar();
+        t.estado[pid] = TabelaProcessosPrimitiva.PRONTO;
+        prontos.adicionar(pid);
+        reagendarDesbloqueio();
+    }
+
+    private void reagendarDesbloqueio() {
+        int m = bloqueados.tamanho();
+        proximoDesbloqueio = m == 0 ? Long.MAX_VALUE : relogio + amostrarGeometrica(m * logNaoDesbloqueio);
+    }
+
+    private long amostrarGeometrica(double logFalha) {
+        if (logFalha == 0) return Long.MAX_VALUE / 2;
+        double k = Math.floor(Math.log1p(-rand.nextDouble()) / logFalha);
+        return k >= Long.MAX_VALUE / 4 ? Long.MAX_VALUE / 4 : 1 + (long) k;
+    }
+
+    public long relogio() {
+        return relogio;
+    }
+
+    public long rodadas() {
+        return rodadas;
+    }
+
+    public int terminados() {
+        return terminados;
+    }
+}
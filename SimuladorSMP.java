@@ -0,0 +1,280 @@
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Simulação multiprocessada (SMP): N núcleos, cada um em sua própria thread
+ * com fila local de prontos.
+ *
+ * - Cada núcleo tira processos da frente da sua fila (ConcurrentLinkedDeque,
+ *   sem trava) e roda uma fatia com as mesmas regras do {@link MotorEventos}:
+ *   o menor entre quantum, próxima E/S sorteada e tempo restante.
+ * - Núcleo sem trabalho rouba do fim da fila de outro núcleo.
+ * - Um balanceador periódico move processos da fila mais cheia para a mais
+ *   vazia.
+ * - Processos bloqueados dormem num conjunto global ordenado pelo despertar
+ *   (ConcurrentSkipListSet); qualquer núcleo cujo relógio alcançou o
+ *   despertar acorda o processo para a própria fila. Núcleo sem nada para
+ *   rodar salta o relógio até o próximo despertar, como a CPU ociosa do
+ *   {@link MotorEventos}; só espera de verdade quando todos os prontos estão
+ *   executando em outros núcleos.
+ *
+ * Não há trava global: um processo só é lido/escrito pela thread que o tirou
+ * de uma fila ou do conjunto (poll e remove são atômicos), e a passagem pela
+ * estrutura concorrente garante a visibilidade dos campos para o próximo
+ * dono. Cada núcleo tem relógio simulado próprio, que avança com as fatias
+ * que executa; p.desde guarda quando o processo ficou pronto, e quem o
+ * despacha adianta o relógio até lá se estiver atrás (um processo roubado
+ * ou acordado não roda antes de ter ficado pronto). Todo despacho em um
+ * núcleo diferente do anterior conta como migração, inclusive o primeiro
+ * despacho de um processo roubado da fila de origem.
+ */
+public class SimuladorSMP {
+
+    static final long PERIODO_BALANCEAMENTO_MS = 5;
+
+    private static class Despertar implements Comparable<Despertar> {
+        final long tempo;
+        final long seq; // desempate: despertares no mesmo instante saem na ordem de criação
+        final SimuladorSO.Processo p;
+
+        Despertar(long tempo, long seq, SimuladorSO.Processo p) {
+            this.tempo = tempo;
+            this.seq = seq;
+            this.p = p;
+        }
+
+        @Override
+        public int compareTo(Despertar o) {
+            if (tempo != o.tempo) return Long.compare(tempo, o.tempo);
+            return Long.compare(seq, o.seq);
+        }
+    }
+
+    class Nucleo implements Runnable {
+        final int id;
+        final ConcurrentLinkedDeque<SimuladorSO.Processo> fila = new ConcurrentLinkedDeque<>();
+        final AtomicInteger tamanhoFila = new AtomicInteger();
+        private final SplittableRandom rand;
+
+        long relogio;
+        long ocupado;
+        long despachos;
+        long roubos;
+
+        Nucleo(int id, SplittableRandom rand) {
+            this.id = id;
+            this.rand = rand;
+        }
+
+        void adicionar(SimuladorSO.Processo p) {
+            fila.addLast(p);
+            tamanhoFila.incrementAndGet();
+        }
+
+        SimuladorSO.Processo retirar(boolean doFim) {
+            SimuladorSO.Processo p = doFim ? fila.pollLast() : fila.pollFirst();
+            if (p != null) tamanhoFila.decrementAndGet();
+            return p;
+        }
+
+        @Override
+        public void run() {
+            int giros = 0;
+            while (terminados.get() < total) {
+                acordarVencidos();
+                SimuladorSO.Processo p = retirar(false);
+                if (p == null) p = roubar();
+                if (p == null) {
+                    Despertar d = primeiroDormindo();
+                    if (d != null) {
+                        relogio = Math.max(relogio, d.tempo); // ocioso até o próximo despertar
+                        continue;
+                    }
+                }
+                if (p == null) {
+                    if (++giros % 64 == 0) Thread.yield();
+                    else Thread.onSpinWait();
+                    continue;
+                }
+                giros = 0;
+                executar(p);
+            }
+        }
+
+        // acorda para esta fila os despertares até o relógio deste núcleo; outro núcleo pode levar o
+        // mesmo despertar antes, e só quem conseguir o remove fica com o processo
+        private void acordarVencidos() {
+            Despertar d;
+            while ((d = primeiroDormindo()) != null && d.tempo <= relogio) {
+                if (!dormindo.remove(d)) continue;
+                SimuladorSO.Processo p = d.p;
+                p.estado = SimuladorSO.Estado.PRONTO;
+                p.desde = d.tempo;
+                gravar(p);
+                adicionar(p);
+            }
+        }
+
+        private SimuladorSO.Processo roubar() {
+            int n = nucleos.length;
+            int inicio = rand.nextInt(n);
+            for (int i = 0; i < n; i++) {
+                Nucleo vitima = nucleos[(inicio + i) % n];
+                if (vitima == this) continue;
+                SimuladorSO.Processo p = vitima.retirar(true);
+                if (p != null) {
+                    roubos++;
+                    return p;
+                }
+            }
+            return null;
+        }
+
+        private void executar(SimuladorSO.Processo p) {
+            if (p.nucleo != id) migracoes.incrementAndGet();
+            p.nucleo = id;
+            relogio = Math.max(relogio, p.desde); // roubado de um núcleo adiantado: espera ficar pronto
+            p.estado = SimuladorSO.Estado.EXECUTANDO;
+            p.ncpu++;
+            despachos++;
+
+            long cicloES = amostrarGeometrica(logNaoES);
+            long duracao;
+            SimuladorSO.Estado resultado;
+            if (cicloES <= quantum && cicloES < p.tempoRestante) {
+                duracao = cicloES;
+                resultado = SimuladorSO.Estado.BLOQUEADO;
+            } else if (p.tempoRestante <= quantum) {
+                duracao = p.tempoRestante;
+                resultado = SimuladorSO.Estado.TERMINADO;
+            } else {
+                duracao = quantum;
+                resultado = SimuladorSO.Estado.PRONTO;
+            }
+            relogio += duracao;
+            ocupado += duracao;
+            p.cp += duracao;
+            p.tempoRestante -= duracao;
+            p.estado = resultado;
+            p.desde = relogio;
+            gravar(p);
+
+            switch (resultado) {
+                case TERMINADO:
+                    terminados.incrementAndGet();
+                    break;
+                case BLOQUEADO:
+                    p.nes++;
+                    dormindo.add(new Despertar(relogio + amostrarGeometrica(logNaoDesbloqueio),
+                                               seqDespertar.getAndIncrement(), p));
+                    break;
+                default:
+                    adicionar(p);
+            }
+        }
+
+        private long amostrarGeometrica(double logFalha) {
+            if (logFalha == 0) return Long.MAX_VALUE / 2;
+            double k = Math.floor(Math.log1p(-rand.nextDouble()) / logFalha);
+            return k >= Long.MAX_VALUE / 4 ? Long.MAX_VALUE / 4 : 1 + (long) k;
+        }
+    }
+
+    private final int total;
+    private final int quantum;
+    private final double logNaoES;
+    private final double logNaoDesbloqueio;
+    private final TabelaProcessosBinaria tabela; // pode ser null
+    private final Nucleo[] nucleos;
+    private final ConcurrentSkipListSet<Despertar> dormindo = new ConcurrentSkipListSet<>();
+    private final AtomicLong seqDespertar = new AtomicLong();
+
+    private final AtomicInteger terminados = new AtomicInteger();
+    private final AtomicLong migracoes = new AtomicLong();
+    private final AtomicLong balanceamentos = new AtomicLong();
+
+    public SimuladorSMP(List<SimuladorSO.Processo> processos, int numNucleos, int quantum, double probES,
+                        double probDesbloqueioPorQuantum, long semente, TabelaProcessosBinaria tabela) {
+        this.total = processos.size();
+        this.quantum = quantum;
+        this.logNaoES = Math.log1p(-probES);
+        this.logNaoDesbloqueio = Math.log1p(-probDesbloqueioPorQuantum) / quantum;
+        this.tabela = tabela;
+        SplittableRandom raiz = new SplittableRandom(semente);
+        nucleos = new Nucleo[numNucleos];
+        for (int i = 0; i < numNucleos; i++) nucleos[i] = new Nucleo(i, raiz.split());
+        for (int i = 0; i < processos.size(); i++) {
+            SimuladorSO.Processo p = processos.get(i);
+            p.nucleo = i % numNucleos; // núcleo de origem: despachar em outro já é migração
+            p.desde = 0;
+            nucleos[i % numNucleos].adicionar(p);
+        }
+    }
+
+    private static final Despertar ANTES_DE_TODOS = new Despertar(Long.MIN_VALUE, Long.MIN_VALUE, null);
+
+    // o próximo despertar ou null (first() lança exceção com o conjunto vazio)
+    private Despertar primeiroDormindo() {
+        return dormindo.ceiling(ANTES_DE_TODOS);
+    }
+
+    // cada slot da tabela só é escrito pelo núcleo dono do processo naquele momento
+    private void gravar(SimuladorSO.Processo p) {
+        if (tabela != null) tabela.gravar(p);
+    }
+
+    public void executar() throws InterruptedException {
+        Thread[] threads = new Thread[nucleos.length];
+        for (int i = 0; i < nucleos.length; i++) {
+            threads[i] = new Thread(nucleos[i], "nucleo-" + i);
+            threads[i].start();
+        }
+        Thread balanceador = new Thread(this::balancear, "balanceador");
+        balanceador.setDaemon(true);
+        balanceador.start();
+
+        for (Thread t : threads) t.join();
+        balanceador.interrupt();
+    }
+
+    // move metade da diferença entre a fila mais cheia e a mais vazia
+    private void balancear() {
+        while (!Thread.currentThread().isInterrupted() && terminados.get() < total) {
+            try {
+                Thread.sleep(PERIODO_BALANCEAMENTO_MS);
+            } catch (InterruptedException e) {
+                return;
+            }
+            Nucleo maior = nucleos[0], menor = nucleos[0];
+            for (Nucleo n : nucleos) {
+                if (n.tamanhoFila.get() > maior.tamanhoFila.get()) maior = n;
+                if (n.tamanhoFila.get() < menor.tamanhoFila.get()) menor = n;
+            }
+            int mover = (maior.tamanhoFila.get() - menor.tamanhoFila.get()) / 2;
+            for (int i = 0; i < mover; i++) {
+                SimuladorSO.Processo p = maior.retirar(true);
+                if (p == null) break;
+                menor.adicionar(p);
+            }
+            if (mover > 0) balanceamentos.incrementAndGet();
+        }
+    }
+
+    public void imprimirRelatorio() {
+        System.out.println("\n==== Núcleos ====");
+        System.out.println("Núcleo\tDespachos\tRoubos\tCiclos ocupados\tRelógio\tUtilização");
+        for (Nucleo n : nucleos) {
+            double util = n.relogio == 0 ? 0 : 100.0 * n.ocupado / n.relogio;
+            System.out.printf("%d\t%d\t%d\t%d\t%d\t%.1f%%%n", n.id, n.despachos, n.roubos, n.ocupado, n.relogio, util);
+        }
+        System.out.println("Migrações: " + migracoes.get() + "  Balanceamentos: " + balanceamentos.get());
+        System.out.println("=================\n");
+    }
+
+    public long migracoes() {
+        return migracoes.get();
+    }
+}
@@ -1,4 +1,7 @@
 import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.*;
 
 public class SimuladorSO {
@@ -6,8 +9,13 @@ public class SimuladorSO {
     // ========================
     // CONSTANTES
     // ========================
-    private static final int QUANTUM = 1000;
-    private static final String ARQUIVO_TABELA = "process_table.txt";
+    static final int QUANTUM = 1000;
+    static final double PROB_ES = 0.01;          // por ciclo de CPU
+    static final double PROB_DESBLOQUEIO = 0.30; // por intervalo de um quantum (modos SMP e primitivo)
+    static final String ARQUIVO_TABELA = "process_table.txt";     // exportação legível
+    static final String ARQUIVO_TABELA_BIN = "process_table.bin"; // tabela mapeada em memória
+    static final String ARQUIVO_DIARIO = "process_journal.bin";
+    static final String ARQUIVO_CHECKPOINT = "process_checkpoint.bin";
 
     private static final Map<Integer, Integer> TEMPOS_INICIAIS = Map.ofEntries(
         Map.entry(0, 10000),
@@ -22,6 +30,11 @@ public class SimuladorSO {
         Map.entry(9, 10000)
     );
 
+    // tempo de CPU do processo i, repetindo TEMPOS_INICIAIS para cargas maiores
+    static long tempoInicial(int i) {
+        return TEMPOS_INICIAIS.get(i % TEMPOS_INICIAIS.size());
+    }
+
     enum Estado {
         PRONTO, EXECUTANDO, BLOQUEADO, TERMINADO
     }
@@ -31,13 +44,33 @@ public class SimuladorSO {
     // ========================
     static class Processo {
         int pid;
-        int tempoRestante;
-        int cp;      // contador de programa
+        long tempoRestante;
+        long cp;     // contador de programa
         Estado estado;
         int nes;     // nº de operações de E/S
         int ncpu;    // nº de vezes que usou a CPU
+        int nivel;     // nível atual na MLFQ
+        long vruntime; // tempo virtual de execução no CFS
+        int nucleo = -1; // modo SMP: núcleo de origem, depois o último que o executou
+        int dispositivo; // dispositivo da E/S em andamento
+        int prioridade;  // 0 = mais alta (cargas de trace)
+
+        // rajadas de um trace: cpu, es, cpu, es, ..., cpu; null = E/S sorteada
+        long[] rajadas;
+        int rajada;           // índice da rajada de CPU atual (sempre par)
+        long rajadaRestante;  // ciclos que faltam na rajada de CPU atual
+
+        // métricas de latência (relógio simulado); -1 = ainda não aconteceu
+        long chegada;
+        long primeiraExecucao = -1;
+        long conclusao = -1;
+        long esperaTotal;     // ciclos em PRONTO
+        long bloqueadoTotal;  // ciclos em BLOQUEADO
+        long desde;           // instante da última mudança de estado
+        long fimServico = -1; // fim da E/S em serviço no dispositivo; -1 = nenhuma
+        long seqServico;      // ordem de agendamento, desempata fins de E/S no mesmo ciclo
 
-        public Processo(int pid, int tempoRestante) {
+        public Processo(int pid, long tempoRestante) {
             this.pid = pid;
             this.tempoRestante = tempoRestante;
             this.cp = 0;
@@ -46,6 +79,61 @@ public class SimuladorSO {
             this.ncpu = 0;
         }
 
+        // todos os campos, para os instantâneos do MotorEventos
+        void gravar(DataOutput out) throws IOException {
+            out.writeInt(pid);
+            out.writeLong(tempoRestante);
+            out.writeLong(cp);
+            out.writeByte(estado.ordinal());
+            out.writeInt(nes);
+            out.writeInt(ncpu);
+            out.writeInt(nivel);
+            out.writeLong(vruntime);
+            out.writeInt(nucleo);
+            out.writeInt(dispositivo);
+            out.writeInt(prioridade);
+            out.writeLong(chegada);
+            out.writeLong(primeiraExecucao);
+            out.writeLong(conclusao);
+            out.writeLong(esperaTotal);
+            out.writeLong(bloqueadoTotal);
+            out.writeLong(desde);
+            out.writeLong(fimServico);
+            out.writeLong(seqServico);
+            out.writeInt(rajadas == null ? -1 : rajadas.length);
+            if (rajadas != null) for (long r : rajadas) out.writeLong(r);
+            out.writeInt(rajada);
+            out.writeLong(rajadaRestante);
+        }
+
+        void ler(DataInput in) throws IOException {
+            int lido = in.readInt();
+            if (lido != pid) throw new IOException("Instantâneo fora de ordem: PID " + lido + " no lugar de " + pid);
+            tempoRestante = in.readLong();
+            cp = in.readLong();
+            estado = Estado.values()[in.readByte()];
+            nes = in.readInt();
+            ncpu = in.readInt();
+            nivel = in.readInt();
+            vruntime = in.readLong();
+            nucleo = in.readInt();
+            dispositivo = in.readInt();
+            prioridade = in.readInt();
+            chegada = in.readLong();
+            primeiraExecucao = in.readLong();
+            conclusao = in.readLong();
+            esperaTotal = in.readLong();
+            bloqueadoTotal = in.readLong();
+            desde = in.readLong();
+            fimServico = in.readLong();
+            seqServico = in.readLong();
+            int n = in.readInt();
+            rajadas = n < 0 ? null : new long[n];
+            for (int i = 0; i < n; i++) rajadas[i] = in.readLong();
+            rajada = in.readInt();
+            rajadaRestante = in.readLong();
+        }
+
         @Override
         public String toString() {
             return pid + "\t" + tempoRestante + "\t" + cp + "\t" +
@@ -58,149 +146,171 @@ public class SimuladorSO {
     }
 
     // ========================
-    // SALVAR / RESTAURAR
+    // FUNÇÃO PRINCIPAL
     // ========================
-    static void salvarTabela(List<Processo> processos) {
-        try (PrintWriter pw = new PrintWriter(new FileWriter(ARQUIVO_TABELA))) {
-            pw.println(Processo.cabecalho());
-            for (Processo p : processos) {
-                pw.println(p.toString());
-            }
-        } catch (IOException e) {
-            System.err.println("Erro ao salvar tabela: " + e.getMessage());
+    // uso: java SimuladorSO [--retomar] [--escalonador rr|mlfq|cfs|srtf] [--nucleos N] [--primitivo N]
+    //                        [--log 0..3] [--log-arquivo caminho] [--metricas arquivo.csv|.json]
+    //                        [--carga trace.csv|trace.bin] [--semente S]
+    //                        [--instantaneo arquivo [--instantaneo-cada N]] [--restaurar-instantaneo arquivo]
+    //                        [--jmx]
+    //        java SimuladorSO --varredura [opções de VarreduraParametros]
+    //        java SimuladorSO --threads N [--escalonador ...] [--semente S]
+    public static void main(String[] args) throws IOException {
+        if (args.length > 0 && args[0].equals("--varredura")) {
+            VarreduraParametros.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
         }
-    }
-
-    static void restaurarProcessoDeArquivo(int pid, List<Processo> processos) {
-        File f = new File(ARQUIVO_TABELA);
-        if (!f.exists()) return;
-
-        try (BufferedReader br = new BufferedReader(new FileReader(f))) {
-            br.readLine(); // cabeçalho
-            String linha;
-            while ((linha = br.readLine()) != null) {
-                String[] parts = linha.split("\t");
-                if (parts.length < 6) continue;
-                int filePid = Integer.parseInt(parts[0]);
-                if (filePid == pid) {
-                    Processo p = processos.get(pid);
-                    p.tempoRestante = Integer.parseInt(parts[1]);
-                    p.cp = Integer.parseInt(parts[2]);
-                    p.estado = Estado.valueOf(parts[3]);
-                    p.nes = Integer.parseInt(parts[4]);
-                    p.ncpu = Integer.parseInt(parts[5]);
-                    return;
-                }
-            }
-        } catch (Exception e) {
-            System.err.println("Erro ao restaurar processo: " + e.getMessage());
+        boolean retomar = false;
+        String politica = "rr";
+        int nucleos = 0;
+        int primitivo = 0;
+        int threads = 0;
+        int nivelLog = RegistroEventos.DETALHE;
+        String arquivoLog = null;
+        String arquivoMetricas = null;
+        String arquivoCarga = null;
+        Long semente = null;
+        String arquivoInstantaneo = null;
+        int instantaneoCada = 1000;
+        String restaurarInstantaneo = null;
+        boolean jmx = false;
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--retomar")) retomar = true;
+            else if (args[i].equals("--jmx")) jmx = true;
+            else if (args[i].equals("--log") && i + 1 < args.length) nivelLog = Integer.parseInt(args[++i]);
+            else if (args[i].equals("--log-arquivo") && i + 1 < args.length) arquivoLog = args[++i];
+            else if (args[i].equals("--metricas") && i + 1 < args.length) arquivoMetricas = args[++i];
+            else if (args[i].equals("--carga") && i + 1 < args.length) arquivoCarga = args[++i];
+            else if (args[i].equals("--semente") && i + 1 < args.length) semente = Long.parseLong(args[++i]);
+            else if (args[i].equals("--instantaneo") && i + 1 < args.length) arquivoInstantaneo = args[++i];
+            else if (args[i].equals("--instantaneo-cada") && i + 1 < args.length) instantaneoCada = Integer.parseInt(args[++i]);
+            else if (args[i].equals("--restaurar-instantaneo") && i + 1 < args.length) restaurarInstantaneo = args[++i];
+            else if (args[i].equals("--escalonador") && i + 1 < args.length) politica = args[++i];
+            else if (args[i].equals("--nucleos") && i + 1 < args.length) nucleos = Integer.parseInt(args[++i]);
+            else if (args[i].equals("--primitivo") && i + 1 < args.length) primitivo = Integer.parseInt(args[++i]);
+            else if (args[i].equals("--threads") && i + 1 < args.length) threads = Integer.parseInt(args[++i]);
+        }
+        if (primitivo > 0) {
+            simularPrimitivo(primitivo, semente != null ? semente : System.nanoTime());
+            return;
+        }
+        Escalonador escalonador = Escalonador.criar(politica, QUANTUM);
+        if (arquivoCarga != null) {
+            simularCarga(Paths.get(arquivoCarga), escalonador, nivelLog, arquivoLog, arquivoMetricas, jmx,
+                         semente != null ? semente : System.nanoTime());
+            return;
         }
-    }
 
-    // ========================
-    // FUNÇÃO PRINCIPAL
-    // ========================
-    public static void main(String[] args) {
-        Random rand = new Random();
         List<Processo> processos = new ArrayList<>();
-        Queue<Integer> prontos = new LinkedList<>();
-        List<Integer> bloqueados = new ArrayList<>();
-
-        // cria os 10 processos
-        for (int i = 0; i < 10; i++) {
-            Processo p = new Processo(i, TEMPOS_INICIAIS.get(i));
-            processos.add(p);
-            prontos.add(i);
-        }
-
-        salvarTabela(processos);
-        System.out.println("=== Simulação iniciada ===");
-        imprimirEstado(processos, "Estado inicial");
-
-        int terminados = 0;
-        int rodada = 0;
-
-        while (terminados < processos.size()) {
-            rodada++;
-
-            // 1️⃣ Verifica bloqueados: 30% de chance de voltar a PRONTO
-            List<Integer> desbloqueados = new ArrayList<>();
-            for (Iterator<Integer> it = bloqueados.iterator(); it.hasNext();) {
-                int pid = it.next();
-                if (rand.nextDouble() < 0.30) {
-                    Processo p = processos.get(pid);
-                    p.estado = Estado.PRONTO;
-                    prontos.add(pid);
-                    it.remove();
-                    desbloqueados.add(pid);
-                }
-            }
-            if (!desbloqueados.isEmpty()) {
-                System.out.println("[Rodada " + rodada + "] Desbloqueados: " + desbloqueados);
-                salvarTabela(processos);
-            }
-
-            if (prontos.isEmpty()) {
-                // nenhum pronto -> aguarda desbloqueio
-                if (bloqueados.isEmpty()) break; // todos terminaram
-                try { Thread.sleep(10); } catch (InterruptedException ignored) {}
-                continue;
-            }
-
-            // 2️⃣ Escolhe próximo processo pronto (Round Robin)
-            int pid = prontos.poll();
-            Processo p = processos.get(pid);
-
-            // Restaurar dados (PRONTO -> EXECUTANDO)
-            restaurarProcessoDeArquivo(pid, processos);
-
-            if (p.estado == Estado.TERMINADO) continue;
-
-            p.estado = Estado.EXECUTANDO;
-            p.ncpu++;
-            System.out.println("[Rodada " + rodada + "] Executando PID " + p.pid);
-            salvarTabela(processos);
-
-            boolean fezIO = false;
+        for (int i = 0; i < TEMPOS_INICIAIS.size(); i++) {
+            processos.add(new Processo(i, TEMPOS_INICIAIS.get(i)));
+        }
 
-            for (int ciclo = 1; ciclo <= QUANTUM; ciclo++) {
-                p.cp++;
-                p.tempoRestante--;
+        if (threads > 0) {
+            simularThreads(threads, escalonador, semente != null ? semente : System.nanoTime());
+            return;
+        }
 
-                if (p.tempoRestante <= 0) {
-                    p.estado = Estado.TERMINADO;
-                    terminados++;
-                    System.out.println("  -> PID " + p.pid + " terminou.");
-                    salvarTabela(processos);
-                    break;
-                }
+        if (nucleos > 0) {
+            simularSMP(processos, nucleos, semente != null ? semente : System.nanoTime());
+            return;
+        }
 
-                // 1% de chance de E/S
-                if (rand.nextDouble() < 0.01) {
-                    p.estado = Estado.BLOQUEADO;
-                    p.nes++;
-                    bloqueados.add(p.pid);
-                    fezIO = true;
-                    System.out.println("  -> PID " + p.pid + " fez E/S (NES=" + p.nes + ")");
-                    salvarTabela(processos);
-                    break;
+        try (TabelaProcessosBinaria tabela = TabelaProcessosBinaria.criar(Paths.get(ARQUIVO_TABELA_BIN), processos.size());
+             DiarioTransicoes diario = new DiarioTransicoes(Paths.get(ARQUIVO_DIARIO), Paths.get(ARQUIVO_CHECKPOINT));
+             RegistroEventos log = arquivoLog == null ? RegistroEventos.console(nivelLog)
+                                                      : RegistroEventos.arquivo(nivelLog, arquivoLog)) {
+            GeradorSplitMix rand = new GeradorSplitMix(semente != null ? semente : System.nanoTime());
+            MotorEventos motor = new MotorEventos(processos, escalonador, PROB_ES,
+                                                  Dispositivo.padrao(), rand, tabela, diario, log);
+            if (jmx) MonitorSimulacao.registrar(motor, escalonador.nome());
+            if (restaurarInstantaneo != null) {
+                motor.restaurarInstantaneo(Files.readAllBytes(Paths.get(restaurarInstantaneo)));
+                if (semente != null) rand.restaurar(semente); // desvio "e se": mesmo estado, outros sorteios
+            } else {
+                motor.iniciar(retomar);
+            }
+            if (arquivoInstantaneo != null) {
+                try (GravadorInstantaneos gravador = new GravadorInstantaneos(Paths.get(arquivoInstantaneo))) {
+                    motor.gravarInstantaneos(gravador, instantaneoCada);
+                    motor.executar();
                 }
+            } else {
+                motor.executar();
             }
+            tabela.exportarTexto(Paths.get(ARQUIVO_TABELA));
+            if (arquivoMetricas != null) motor.metricas().exportar(Paths.get(arquivoMetricas));
+        } catch (IOException e) {
+            System.err.println("Erro na tabela de processos: " + e.getMessage());
+        }
+    }
 
-            // 3️⃣ Se não terminou nem fez IO → quantum acabou → PRONTO
-            if (p.estado == Estado.EXECUTANDO) {
-                p.estado = Estado.PRONTO;
-                prontos.add(p.pid);
-                System.out.println("  -> PID " + p.pid + " terminou o quantum → PRONTO");
-                salvarTabela(processos);
-            }
+    // processos lidos aos poucos de um trace; sem tabela nem diário (o nº de PIDs não é conhecido)
+    static void simularCarga(Path trace, Escalonador escalonador, int nivelLog, String arquivoLog,
+                             String arquivoMetricas, boolean jmx, long semente) {
+        try (FonteCarga fonte = FonteCarga.abrir(trace);
+             RegistroEventos log = arquivoLog == null ? RegistroEventos.console(nivelLog)
+                                                      : RegistroEventos.arquivo(nivelLog, arquivoLog)) {
+            MotorEventos motor = new MotorEventos(new ArrayList<>(), escalonador, PROB_ES,
+                                                  Dispositivo.padrao(), new GeradorSplitMix(semente), null, null, log);
+            motor.usarFonte(fonte);
+            if (jmx) MonitorSimulacao.registrar(motor, escalonador.nome());
+            long inicio = System.nanoTime();
+            motor.iniciar(false);
+            motor.executar();
+            long ms = (System.nanoTime() - inicio) / 1_000_000;
+            System.out.println("Trace " + trace + ": " + motor.metricas().turnaround.total() + " processos, " +
+                               motor.rodada() + " rodadas, tempo simulado " + motor.relogio() +
+                               ", tempo real " + ms + " ms");
+            if (arquivoMetricas != null) motor.metricas().exportar(Paths.get(arquivoMetricas));
+        } catch (IOException e) {
+            System.err.println("Erro no trace: " + e.getMessage());
+        }
+    }
+
+    // cada processo vira uma thread (virtual em Java 21+) despachada de verdade
+    static void simularThreads(int n, Escalonador escalonador, long semente) {
+        List<Processo> processos = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) processos.add(new Processo(i, tempoInicial(i)));
+        SimuladorThreads sim = new SimuladorThreads(processos, escalonador, PROB_ES, Dispositivo.padrao(), semente);
+        System.out.println("=== Simulação com " + n + " threads de processo (" + escalonador.nome() + ") ===");
+        sim.executar();
+        sim.imprimirRelatorio();
+    }
 
-            if (rodada % 5 == 0)
-                imprimirEstado(processos, "Após rodada " + rodada);
+    static void simularSMP(List<Processo> processos, int nucleos, long semente) {
+        try (TabelaProcessosBinaria tabela = TabelaProcessosBinaria.criar(Paths.get(ARQUIVO_TABELA_BIN), processos.size())) {
+            SimuladorSMP smp = new SimuladorSMP(processos, nucleos, QUANTUM, PROB_ES, PROB_DESBLOQUEIO,
+                                                semente, tabela);
+            System.out.println("=== Simulação SMP com " + nucleos + " núcleos ===");
+            smp.executar();
+            smp.imprimirRelatorio();
+            imprimirEstado(processos, "Estado final");
+            tabela.exportarTexto(Paths.get(ARQUIVO_TABELA));
+        } catch (IOException e) {
+            System.err.println("Erro na tabela de processos: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         }
+    }
 
-        System.out.println("=== Simulação finalizada ===");
-        imprimirEstado(processos, "Estado final");
+    // N processos em colunas primitivas, com os tempos de TEMPOS_INICIAIS repetidos
+    static void simularPrimitivo(int n, long semente) {
+        TabelaProcessosPrimitiva tabela = new TabelaProcessosPrimitiva(n);
+        for (int i = 0; i < n; i++) {
+            tabela.adicionar((int) tempoInicial(i));
+        }
+        SimuladorPrimitivo sim = new SimuladorPrimitivo(tabela, QUANTUM, PROB_ES, PROB_DESBLOQUEIO, semente);
+        System.out.println("=== Simulação primitiva com " + n + " processos ===");
+        long inicio = System.nanoTime();
+        sim.executar();
+        long ms = (System.nanoTime() - inicio) / 1_000_000;
+        System.out.println("Terminados: " + sim.terminados() + "  Rodadas: " + sim.rodadas() +
+                           "  Tempo simulado: " + sim.relogio() + "  Tempo real: " + ms + " ms");
+        System.out.println(Processo.cabecalho());
+        for (int pid = 0; pid < Math.min(n, 10); pid++) {
+            System.out.println(tabela.linha(pid));
+        }
     }
 
     // ========================
@@ -0,0 +1,281 @@
+import java.lang.reflect.Method;
+import java.util.*;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Modo em que cada processo é uma thread de verdade rodando o seu roteiro de
+ * CPU e E/S, e o escalonador é um despachante que acorda e estaciona essas
+ * threads (LockSupport.park/unpark).
+ *
+ * Só uma thread de processo roda por vez (uma CPU): o despachante escolhe
+ * o próximo pelo {@link Escalonador}, dá a ele um orçamento de ciclos (o
+ * quantum) e passa a vez; a thread consome a rajada em pontos de cessão
+ * cooperativos e devolve a vez quando o orçamento acaba, quando pede E/S ou
+ * quando termina. A E/S corre em tempo simulado e usa os mesmos
+ * {@link Dispositivo}s do {@link MotorEventos}: o despachante sorteia o
+ * dispositivo, enfileira a requisição nele e guarda o fim de cada serviço
+ * numa {@link RodaTemporizadores}.
+ *
+ * Além das métricas simuladas, o modo mede em nanossegundos reais a latência
+ * de cada passagem de vez (despachante -> processo e processo ->
+ * despachante), para comparar com o modelo puramente simulado.
+ *
+ * Em Java 21+ as threads são virtuais (obtidas por reflexão, já que o código
+ * compila em Java 17) e um milhão de processos é viável; em versões mais
+ * antigas cai para threads de plataforma com pilha pequena, limitadas pelo
+ * sistema operacional.
+ */
+public class SimuladorThreads {
+
+    static final int LIMITE_PLATAFORMA = 20_000; // sem threads virtuais, mais que isso esgota o SO
+
+    // uma thread por processo
+    class Tarefa implements Runnable {
+        final SimuladorSO.Processo p;
+        final SplittableRandom rand;
+        Thread thread;
+        volatile boolean vez;       // true: o despachante passou a vez para esta tarefa
+        long orcamento;             // ciclos restantes na fatia atual
+        SimuladorSO.Estado resultado;
+        long duracaoES;             // só com rajadas de trace; senão o dispositivo sorteia
+        long usado;
+        long passagem;              // nanoTime de quem passou a vez
+
+        Tarefa(SimuladorSO.Processo p, SplittableRandom rand) {
+            this.p = p;
+            this.rand = rand;
+        }
+
+        @Override
+        public void run() {
+            esperarVez();
+            int rajada = 0;
+            while (p.tempoRestante > 0) {
+                long cpu;
+                if (p.rajadas != null) cpu = p.rajadas[rajada];
+                else cpu = amostrarGeometrica(rand, logNaoES);
+                consumir(Math.min(cpu, p.tempoRestante));
+                if (p.tempoRestante == 0) break;
+                if (p.rajadas != null) {
+                    duracaoES = p.rajadas[rajada + 1];
+                    rajada += 2;
+                }
+                ceder(SimuladorSO.Estado.BLOQUEADO);
+            }
+            resultado = SimuladorSO.Estado.TERMINADO;
+            devolver();
+        }
+
+        // executa "ciclos" de CPU, cedendo a vez toda vez que o orçamento acaba antes da rajada; se
+        // os dois acabam juntos, segue direto para a E/S em vez de voltar para uma fatia vazia
+        private void consumir(long ciclos) {
+            while (ciclos > 0) {
+                long n = Math.min(ciclos, orcamento);
+                ciclos -= n;
+                orcamento -= n;
+                usado += n;
+                p.tempoRestante -= n;
+                p.cp += n;
+                if (orcamento == 0 && ciclos > 0) ceder(SimuladorSO.Estado.PRONTO);
+            }
+        }
+
+        // ponto de cessão: devolve a vez e estaciona até ser despachado de novo
+        private void ceder(SimuladorSO.Estado estado) {
+            resultado = estado;
+            devolver();
+            esperarVez();
+        }
+
+        private void devolver() {
+            vez = false;
+            passagem = System.nanoTime();
+            devolvido = true;
+            LockSupport.unpark(despachante);
+        }
+
+        private void esperarVez() {
+            while (!vez) LockSupport.park(this);
+            latenciaDespacho.registrar(System.nanoTime() - passagem);
+        }
+    }
+
+    private final List<SimuladorSO.Processo> processos;
+    private final Escalonador escalonador;
+    private final double logNaoES;
+    private final Dispositivo[] dispositivos;
+    private final SplittableRandom sorteio; // dispositivo e tempo de serviço, na thread do despachante
+    private final Tarefa[] tarefas;
+    private final RodaTemporizadores<Tarefa> roda = new RodaTemporizadores<>(0);
+    private final List<Tarefa> concluidos = new ArrayList<>();
+    final MetricasEscalonador metricas = new MetricasEscalonador();
+    final HistogramaLog latenciaDespacho = new HistogramaLog("despacho_ns");  // despachante -> processo
+    final HistogramaLog latenciaDevolucao = new HistogramaLog("devolucao_ns"); // processo -> despachante
+    final boolean virtuais;
+
+    private Thread despachante;
+    private volatile boolean devolvido;
+    private long relogio;
+    private long rodadas;
+    private long nanosReais;
+
+    public SimuladorThreads(List<SimuladorSO.Processo> processos, Escalonador escalonador, double probES,
+                            Dispositivo[] dispositivos, long semente) {
+        this.processos = processos;
+        this.escalonador = escalonador;
+        this.logNaoES = Math.log1p(-probES);
+        this.dispositivos = dispositivos;
+        ThreadFactory fabrica = fabricaVirtual();
+        this.virtuais = fabrica != null;
+        if (!virtuais && processos.size() > LIMITE_PLATAFORMA)
+            throw new IllegalArgumentException("Sem threads virtuais (Java < 21) o limite é " + LIMITE_PLATAFORMA
+                                               + " processos");
+        if (fabrica == null) fabrica = r -> {
+            Thread t = new Thread(null, r, "processo", 128 * 1024);
+            t.setDaemon(true);
+            return t;
+        };
+        SplittableRandom raiz = new SplittableRandom(semente);
+        tarefas = new Tarefa[processos.size()];
+        for (SimuladorSO.Processo p : processos) {
+            Tarefa t = new Tarefa(p, raiz.split());
+            t.thread = fabrica.newThread(t);
+            tarefas[p.pid] = t;
+        }
+        sorteio = raiz.split();
+    }
+
+    // Thread.ofVirtual().factory() se a JVM tiver threads virtuais, senão null
+    static ThreadFactory fabricaVirtual() {
+        try {
+            Object construtor = Thread.class.getMethod("ofVirtual").invoke(null);
+            Method fabrica = Class.forName("java.lang.Thread$Builder").getMethod("factory");
+            return (ThreadFactory) fabrica.invoke(construtor);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    public void executar() {
+        despachante = Thread.currentThread();
+        for (SimuladorSO.Processo p : processos) {
+            p.chegada = 0;
+            p.desde = 0;
+            escalonador.aoChegar(p);
+            escalonador.enfileirar(p);
+        }
+        for (Tarefa t : tarefas) t.thread.start();
+
+        long inicio = System.nanoTime();
+        int terminados = 0;
+        while (terminados < tarefas.length) {
+            if (escalonador.tamanho() == 0) {
+                long t = roda.proximoVencimento();
+                if (t == Long.MAX_VALUE) break;
+                relogio = Math.max(relogio, t); // CPU ociosa até o próximo fim de E/S
+            }
+            acordarVencidos();
+            if (escalonador.tamanho() == 0) continue;
+
+            SimuladorSO.Processo p = escalonador.proximo();
+            Tarefa t = tarefas[p.pid];
+            rodadas++;
+            p.estado = SimuladorSO.Estado.EXECUTANDO;
+            p.ncpu++;
+            metricas.aoDespachar(p, relogio);
+            t.orcamento = escalonador.quantum(p);
+            t.usado = 0;
+
+            // passa a vez e espera a tarefa devolver
+            devolvido = false;
+            t.passagem = System.nanoTime();
+            t.vez = true;
+            LockSupport.unpark(t.thread);
+            while (!devolvido) LockSupport.park(this);
+            latenciaDevolucao.registrar(System.nanoTime() - t.passagem);
+
+            relogio += t.usado;
+            p.estado = t.resultado;
+            p.desde = relogio;
+            switch (t.resultado) {
+                case TERMINADO:
+                    terminados++;
+                    escalonador.aoTerminar(p, t.usado);
+                    metricas.aoTerminar(p, relogio);
+                    break;
+                case BLOQUEADO:
+                    p.nes++;
+                    escalonador.aoBloquear(p, t.usado);
+                    p.dispositivo = sorteio.nextInt(dispositivos.length);
+                    iniciarES(t);
+                    break;
+                default:
+                    escalonador.aoExpirarQuantum(p, t.usado);
+                    escalonador.enfileirar(p);
+            }
+        }
+        nanosReais = System.nanoTime() - inicio;
+        for (Tarefa t : tarefas) {
+            try {
+                t.thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    // fim de cada E/S vencida: o dispositivo puxa o próximo da fila e o processo volta a PRONTO
+    private void acordarVencidos() {
+        roda.avancar(relogio, concluidos::add);
+        if (concluidos.size() > 1) concluidos.sort(Comparator.comparingInt(t -> t.p.pid));
+        for (int i = 0; i < concluidos.size(); i++) {
+            SimuladorSO.Processo p = concluidos.get(i).p;
+            SimuladorSO.Processo prox = dispositivos[p.dispositivo].concluir(relogio);
+            if (prox != null) agendarFimServico(dispositivos[p.dispositivo], tarefas[prox.pid]);
+            p.bloqueadoTotal += relogio - p.desde;
+            p.desde = relogio;
+            p.estado = SimuladorSO.Estado.PRONTO;
+            escalonador.enfileirar(p);
+        }
+        concluidos.clear();
+    }
+
+    private void iniciarES(Tarefa t) {
+        Dispositivo d = dispositivos[t.p.dispositivo];
+        if (d.requisitar(t.p, relogio)) agendarFimServico(d, t);
+    }
+
+    // o serviço só começa quando o dispositivo tem canal livre, e é aí que a duração é sorteada
+    private void agendarFimServico(Dispositivo d, Tarefa t) {
+        long servico = t.p.rajadas != null ? t.duracaoES
+                                           : amostrarGeometrica(sorteio, Math.log1p(-1.0 / d.tempoServico));
+        roda.agendar(relogio + servico, t, concluidos::add);
+    }
+
+    private static long amostrarGeometrica(SplittableRandom rand, double logFalha) {
+        double k = Math.floor(Math.log1p(-rand.nextDouble()) / logFalha);
+        return k >= Long.MAX_VALUE / 4 ? Long.MAX_VALUE / 4 : 1 + (long) k;
+    }
+
+    public void imprimirRelatorio() {
+        double s = nanosReais / 1e9;
+        System.out.println("==== Threads (" + (virtuais ? "virtuais" : "de plataforma") + ", " + tarefas.length
+                           + " processos) ====");
+        System.out.printf(Locale.ROOT, "Rodadas: %d  Tempo simulado: %d  Tempo real: %.3f s  Trocas/s: %.0f%n",
+                          rodadas, relogio, s, s == 0 ? 0 : rodadas / s);
+        System.out.println("Passagem de vez (ns)\tN\tMédia\tp50\tp99\tp99.9\tMáx");
+        for (HistogramaLog h : new HistogramaLog[] { latenciaDespacho, latenciaDevolucao }) {
+            System.out.printf(Locale.ROOT, "%-15s\t\t%d\t%.0f\t%d\t%d\t%d\t%d%n", h.nome, h.total(), h.media(),
+                              h.percentil(50), h.percentil(99), h.percentil(99.9), h.max());
+        }
+        System.out.println("==========================================\n");
+        Dispositivo.imprimir(dispositivos, relogio);
+        metricas.imprimir();
+    }
+
+    public long rodadas() {
+        return rodadas;
+    }
+}
@@ -0,0 +1,145 @@
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+
+/**
+ * Tabela de processos em formato binário de largura fixa, mapeada em memória.
+ *
+ * Cada PID ocupa um registro (slot) próprio no arquivo, então gravar ou
+ * restaurar um processo é só ler/escrever alguns inteiros em um deslocamento
+ * fixo: {@code CABECALHO + pid * TAM_REGISTRO}. Não existe mais reescrita do
+ * arquivo inteiro a cada troca de estado.
+ *
+ * Layout (big-endian):
+ *   cabeçalho: magico(int) versao(int) capacidade(int) reservado(int)
+ *   registro:  pid(int) estado(int) tempoRestante(long) cp(long) nes(int) ncpu(int)
+ *
+ * O campo estado guarda {@code ordinal + 1}; zero marca um slot vazio.
+ */
+public class TabelaProcessosBinaria implements Closeable {
+
+    static final int MAGICO = 0x534F5450; // "SOTP"
+    static final int VERSAO = 2;
+    static final int TAM_CABECALHO = 16;
+    static final int TAM_REGISTRO = 32;
+
+    private final FileChannel canal;
+    private final MappedByteBuffer mapa;
+    private final int capacidade;
+
+    private TabelaProcessosBinaria(FileChannel canal, MappedByteBuffer mapa, int capacidade) {
+        this.canal = canal;
+        this.mapa = mapa;
+        this.capacidade = capacidade;
+    }
+
+    // cria (ou recria do zero) a tabela com espaço para "capacidade" PIDs
+    public static TabelaProcessosBinaria criar(Path arquivo, int capacidade) throws IOException {
+        FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        long tamanho = TAM_CABECALHO + (long) capacidade * TAM_REGISTRO;
+        MappedByteBuffer mapa = canal.map(FileChannel.MapMode.READ_WRITE, 0, tamanho);
+        mapa.putInt(0, MAGICO);
+        mapa.putInt(4, VERSAO);
+        mapa.putInt(8, capacidade);
+        mapa.putInt(12, 0);
+        return new TabelaProcessosBinaria(canal, mapa, capacidade);
+    }
+
+    // abre uma tabela existente, validando o cabeçalho
+    public static TabelaProcessosBinaria abrir(Path arquivo) throws IOException {
+        FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            if (canal.size() < TAM_CABECALHO) throw new IOException("Arquivo muito pequeno: " + arquivo);
+            ByteBuffer cab = ByteBuffer.allocate(TAM_CABECALHO);
+            canal.read(cab, 0);
+            cab.flip();
+            if (cab.getInt() != MAGICO) throw new IOException("Não é uma tabela de processos: " + arquivo);
+            int versao = cab.getInt();
+            if (versao != VERSAO) throw new IOException("Versão de tabela não suportada: " + versao);
+            int capacidade = cab.getInt();
+            long tamanho = TAM_CABECALHO + (long) capacidade * TAM_REGISTRO;
+            if (canal.size() < tamanho) throw new IOException("Tabela truncada: " + arquivo);
+            MappedByteBuffer mapa = canal.map(FileChannel.MapMode.READ_WRITE, 0, tamanho);
+            return new TabelaProcessosBinaria(canal, mapa, capacidade);
+        } catch (IOException e) {
+            canal.close();
+            throw e;
+        }
+    }
+
+    public int capacidade() {
+        return capacidade;
+    }
+
+    private int offset(int pid) {
+        if (pid < 0 || pid >= capacidade)
+            throw new IndexOutOfBoundsException("PID " + pid + " fora da tabela (capacidade " + capacidade + ")");
+        return TAM_CABECALHO + pid * TAM_REGISTRO;
+    }
+
+    // atualiza somente o slot do processo
+    public void gravar(SimuladorSO.Processo p) {
+        int off = offset(p.pid);
+        mapa.putInt(off, p.pid);
+        mapa.putInt(off + 4, p.estado.ordinal() + 1);
+        mapa.putLong(off + 8, p.tempoRestante);
+        mapa.putLong(off + 16, p.cp);
+        mapa.putInt(off + 24, p.nes);
+        mapa.putInt(off + 28, p.ncpu);
+    }
+
+    // lê o slot do PID de volta para o processo; false se o slot estiver vazio
+    public boolean restaurar(SimuladorSO.Processo p) {
+        int off = offset(p.pid);
+        int estado = mapa.getInt(off + 4);
+        if (estado == 0) return false;
+        p.estado = SimuladorSO.Estado.values()[estado - 1];
+        p.tempoRestante = mapa.getLong(off + 8);
+        p.cp = mapa.getLong(off + 16);
+        p.nes = mapa.getInt(off + 24);
+        p.ncpu = mapa.getInt(off + 28);
+        return true;
+    }
+
+    // garante que as páginas sujas chegaram ao disco
+    public void sincronizar() {
+        mapa.force();
+    }
+
+    // exporta no mesmo layout separado por tabulação do antigo process_table.txt
+    public void exportarTexto(Path destino) throws IOException {
+        SimuladorSO.Estado[] estados = SimuladorSO.Estado.values();
+        try (PrintWriter pw = new PrintWriter(Files.newBufferedWriter(destino))) {
+            pw.println(SimuladorSO.Processo.cabecalho());
+            for (int pid = 0; pid < capacidade; pid++) {
+                int off = TAM_CABECALHO + pid * TAM_REGISTRO;
+                int estado = mapa.getInt(off + 4);
+                if (estado == 0) continue;
+                pw.println(mapa.getInt(off) + "\t" + mapa.getLong(off + 8) + "\t" + mapa.getLong(off + 16) + "\t" +
+                           estados[estado - 1] + "\t" + mapa.getInt(off + 24) + "\t" + mapa.getInt(off + 28));
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        mapa.force();
+        canal.close();
+    }
+
+    // ferramenta de exportação: java TabelaProcessosBinaria <tabela.bin> [saida.txt]
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Uso: java TabelaProcessosBinaria <process_table.bin> [process_table.txt]");
+            System.exit(1);
+        }
+        Path destino = Paths.get(args.length > 1 ? args[1] : SimuladorSO.ARQUIVO_TABELA);
+        try (TabelaProcessosBinaria tabela = abrir(Paths.get(args[0]))) {
+            tabela.exportarTexto(destino);
+        }
+        System.out.println("Tabela exportada para " + destino);
+    }
+}
@@ -0,0 +1,47 @@
+/**
+ * Tabela de processos em colunas primitivas (struct-of-arrays).
+ *
+ * Em vez de um objeto Processo por PID, cada campo é um vetor indexado pelo
+ * PID: 4 ints + 1 byte = 17 bytes por processo, sem cabeçalho de objeto, sem
+ * referência para enum e sem nada para o GC percorrer. O estado guarda o
+ * ordinal de {@link SimuladorSO.Estado}.
+ */
+public class TabelaProcessosPrimitiva {
+
+    static final byte PRONTO = (byte) SimuladorSO.Estado.PRONTO.ordinal();
+    static final byte EXECUTANDO = (byte) SimuladorSO.Estado.EXECUTANDO.ordinal();
+    static final byte BLOQUEADO = (byte) SimuladorSO.Estado.BLOQUEADO.ordinal();
+    static final byte TERMINADO = (byte) SimuladorSO.Estado.TERMINADO.ordinal();
+
+    final int[] tempoRestante;
+    final int[] cp;
+    final byte[] estado;
+    final int[] nes;
+    final int[] ncpu;
+    private int tamanho;
+
+    public TabelaProcessosPrimitiva(int capacidade) {
+        tempoRestante = new int[capacidade];
+        cp = new int[capacidade];
+        estado = new byte[capacidade];
+        nes = new int[capacidade];
+        ncpu = new int[capacidade];
+    }
+
+    // cria um processo PRONTO e devolve o PID
+    public int adicionar(int tempoInicial) {
+        int pid = tamanho++;
+        tempoRestante[pid] = tempoInicial;
+        estado[pid] = PRONTO;
+        return pid;
+    }
+
+    public int tamanho() {
+        return tamanho;
+    }
+
+    public String linha(int pid) {
+        return pid + "\t" + tempoRestante[pid] + "\t" + cp[pid] + "\t" +
+               SimuladorSO.Estado.values()[estado[pid]] + "\t" + nes[pid] + "\t" + ncpu[pid];
+    }
+}
@@ -0,0 +1,217 @@
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Varredura de parâmetros: muitas simulações independentes do
+ * {@link MotorEventos} para cada combinação de quantum, probabilidade de E/S
+ * e escala do tempo de serviço dos dispositivos.
+ *
+ * As execuções de cada configuração são divididas em um ForkJoinPool
+ * (RecursiveTask sobre intervalos de execuções). A execução i usa um
+ * SplittableRandom com semente base + i, então qualquer execução pode ser
+ * refeita isoladamente com os mesmos números. O motor roda sem registro e
+ * sem persistência.
+ *
+ * Nada é guardado por execução: cada folha acumula média e variância
+ * (Welford) das métricas, e as folhas são combinadas na volta do fork/join.
+ * A saída é uma linha por configuração com média e intervalo de confiança de
+ * 95% (aproximação normal) de cada métrica.
+ *
+ * uso: java VarreduraParametros [--quantums 250,500,1000] [--probs-es 0.005,0.01]
+ *                               [--escalas 0.5,1,2] [--escalonador rr|mlfq|cfs|srtf]
+ *                               [--execucoes 1000] [--semente 1] [--processos 10]
+ *                               [--paralelismo N] [--saida arquivo.csv]
+ */
+public class VarreduraParametros {
+
+    static final int LIMIAR = 16; // execuções por folha do fork/join
+    static final double Z95 = 1.96;
+
+    // métricas coletadas por execução
+    static final String[] METRICAS = { "makespan", "turnaround_medio", "turnaround_p99", "resposta_media",
+                                       "espera_media", "rodadas" };
+
+    // média e variância em uma passada (Welford), combináveis (Chan et al.)
+    static class Estatistica {
+        long n;
+        double media;
+        double m2;
+
+        void adicionar(double x) {
+            n++;
+            double d = x - media;
+            media += d / n;
+            m2 += d * (x - media);
+        }
+
+        void juntar(Estatistica o) {
+            if (o.n == 0) return;
+            long total = n + o.n;
+            double d = o.media - media;
+            media += d * o.n / total;
+            m2 += o.m2 + d * d * ((double) n * o.n / total);
+            n = total;
+        }
+
+        double desvio() {
+            return n > 1 ? Math.sqrt(m2 / (n - 1)) : 0;
+        }
+
+        // meia largura do intervalo de 95%
+        double ic95() {
+            return n > 1 ? Z95 * desvio() / Math.sqrt(n) : 0;
+        }
+    }
+
+    static class Configuracao {
+        final int quantum;
+        final double probES;
+        final double escala;
+
+        Configuracao(int quantum, double probES, double escala) {
+            this.quantum = quantum;
+            this.probES = probES;
+            this.escala = escala;
+        }
+    }
+
+    private final Configuracao cfg;
+    private final String politica;
+    private final long[] tempos;
+
+    VarreduraParametros(Configuracao cfg, String politica, long[] tempos) {
+        this.cfg = cfg;
+        this.politica = politica;
+        this.tempos = tempos;
+    }
+
+    // uma execução completa; devolve as métricas na ordem de METRICAS
+    double[] executar(long semente) throws IOException {
+        List<SimuladorSO.Processo> processos = new ArrayList<>(tempos.length);
+        for (int i = 0; i < tempos.length; i++) processos.add(new SimuladorSO.Processo(i, tempos[i]));
+        Dispositivo[] base = Dispositivo.padrao();
+        Dispositivo[] dispositivos = new Dispositivo[base.length];
+        for (int i = 0; i < base.length; i++) {
+            long servico = Math.max(1, Math.round(base[i].tempoServico * cfg.escala));
+            dispositivos[i] = new Dispositivo(base[i].nome, servico, base[i].profundidade);
+        }
+        MotorEventos motor = new MotorEventos(processos, Escalonador.criar(politica, cfg.quantum), cfg.probES,
+                                              dispositivos, new SplittableRandom(semente), null, null,
+                                              RegistroEventos.desligado());
+        motor.iniciar(false);
+        motor.executar();
+        MetricasEscalonador m = motor.metricas();
+        return new double[] { motor.relogio(), m.turnaround.media(), m.turnaround.percentil(99),
+                              m.resposta.media(), m.esperaTotal.media(), motor.rodada() };
+    }
+
+    // execuções [inicio, fim) desta configuração (ForkJoinTask é Serializable, mas o lote nunca é serializado)
+    @SuppressWarnings("serial")
+    class Lote extends RecursiveTask<Estatistica[]> {
+        final long semente;
+        final int inicio, fim;
+
+        Lote(long semente, int inicio, int fim) {
+            this.semente = semente;
+            this.inicio = inicio;
+            this.fim = fim;
+        }
+
+        @Override
+        protected Estatistica[] compute() {
+            if (fim - inicio > LIMIAR) {
+                int meio = (inicio + fim) >>> 1;
+                Lote esquerda = new Lote(semente, inicio, meio);
+                esquerda.fork();
+                Estatistica[] dir = new Lote(semente, meio, fim).compute();
+                Estatistica[] esq = esquerda.join();
+                for (int i = 0; i < esq.length; i++) esq[i].juntar(dir[i]);
+                return esq;
+            }
+            Estatistica[] est = new Estatistica[METRICAS.length];
+            for (int i = 0; i < est.length; i++) est[i] = new Estatistica();
+            for (int e = inicio; e < fim; e++) {
+                double[] r;
+                try {
+                    r = executar(semente + e);
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+                for (int i = 0; i < r.length; i++) est[i].adicionar(r[i]);
+            }
+            return est;
+        }
+    }
+
+    // ========================
+    // FUNÇÃO PRINCIPAL
+    // ========================
+    public static void main(String[] args) throws IOException {
+        int[] quantums = { SimuladorSO.QUANTUM };
+        double[] probsES = { SimuladorSO.PROB_ES };
+        double[] escalas = { 1.0 };
+        String politica = "rr";
+        int execucoes = 1000;
+        long semente = 1;
+        int numProcessos = 10;
+        int paralelismo = Runtime.getRuntime().availableProcessors();
+        String saida = null;
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--quantums") && i + 1 < args.length)
+                quantums = Arrays.stream(args[++i].split(",")).mapToInt(Integer::parseInt).toArray();
+            else if (args[i].equals("--probs-es") && i + 1 < args.length)
+                probsES = Arrays.stream(args[++i].split(",")).mapToDouble(Double::parseDouble).toArray();
+            else if (args[i].equals("--escalas") && i + 1 < args.length)
+                escalas = Arrays.stream(args[++i].split(",")).mapToDouble(Double::parseDouble).toArray();
+            else if (args[i].equals("--escalonador") && i + 1 < args.length) politica = args[++i];
+            else if (args[i].equals("--execucoes") && i + 1 < args.length) execucoes = Integer.parseInt(args[++i]);
+            else if (args[i].equals("--semente") && i + 1 < args.length) semente = Long.parseLong(args[++i]);
+            else if (args[i].equals("--processos") && i + 1 < args.length) numProcessos = Integer.parseInt(args[++i]);
+            else if (args[i].equals("--paralelismo") && i + 1 < args.length) paralelismo = Integer.parseInt(args[++i]);
+            else if (args[i].equals("--saida") && i + 1 < args.length) saida = args[++i];
+        }
+
+        // mesma carga do modo padrão, repetida até numProcessos
+        long[] tempos = new long[numProcessos];
+        for (int i = 0; i < numProcessos; i++) tempos[i] = SimuladorSO.tempoInicial(i);
+
+        ForkJoinPool pool = new ForkJoinPool(paralelismo);
+        Writer csv = saida == null ? null : Files.newBufferedWriter(Paths.get(saida), StandardCharsets.UTF_8);
+        try {
+            StringBuilder cab = new StringBuilder("escalonador,quantum,prob_es,escala_servico,execucoes");
+            for (String m : METRICAS) cab.append(',').append(m).append(',').append(m).append("_ic95");
+            if (csv != null) csv.write(cab.append('\n').toString());
+            System.out.println("=== Varredura: " + politica + ", " + execucoes + " execuções por configuração, "
+                               + paralelismo + " threads ===");
+            System.out.println("Quantum\tP(E/S)\tEscala\tMakespan\t\t\tTurnaround p99\t\tResposta média");
+
+            for (int q : quantums) {
+                for (double pes : probsES) {
+                    for (double esc : escalas) {
+                        Configuracao cfg = new Configuracao(q, pes, esc);
+                        VarreduraParametros v = new VarreduraParametros(cfg, politica, tempos);
+                        Estatistica[] est = pool.invoke(v.new Lote(semente, 0, execucoes));
+                        System.out.printf(Locale.ROOT, "%d\t%.4f\t%.2f\t%.0f ± %.0f\t\t%.0f ± %.0f\t\t%.0f ± %.0f%n",
+                                          q, pes, esc, est[0].media, est[0].ic95(), est[2].media, est[2].ic95(),
+                                          est[3].media, est[3].ic95());
+                        if (csv != null) {
+                            StringBuilder sb = new StringBuilder();
+                            sb.append(String.format(Locale.ROOT, "%s,%d,%s,%s,%d", politica, q, pes, esc, execucoes));
+                            for (Estatistica e : est)
+                                sb.append(String.format(Locale.ROOT, ",%.3f,%.3f", e.media, e.ic95()));
+                            csv.write(sb.append('\n').toString());
+                            csv.flush();
+                        }
+                    }
+                }
+            }
+        } finally {
+            pool.shutdown();
+            if (csv != null) csv.close();
+        }
+    }
+}
@@ -0,0 +1,102 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+import org.junit.jupiter.api.Test;
+
+class AlocadorBuddyTest {
+
+    private static AlocadorBuddy novo(int tamanho) {
+        AlocadorBuddy b = new AlocadorBuddy(tamanho);
+        b.verboso = false;
+        return b;
+    }
+
+    @Test
+    void divideAteAOrdemPedidaEJuntaNaVolta() {
+        AlocadorBuddy buddy = novo(64);
+        Processo p = new Processo("P", 3);
+        assertTrue(buddy.alocar(p));
+        assertEquals(0, p.inicio);
+        assertEquals(4, buddy.divisoes); // 64 -> 32 -> 16 -> 8 -> 4
+        assertEquals(60, buddy.livres());
+        assertEquals(32, buddy.maiorBlocoLivre());
+        assertEquals(0.25, buddy.fragmentacaoInterna());
+
+        buddy.desalocar(p);
+        assertEquals(-1, p.inicio);
+        assertEquals(4, buddy.juncoes);
+        assertEquals(64, buddy.livres());
+        assertEquals(64, buddy.maiorBlocoLivre());
+    }
+
+    @Test
+    void soJuntaComOBuddyLivre() {
+        AlocadorBuddy buddy = novo(16);
+        Processo a = new Processo("A", 4), b = new Processo("B", 4);
+        assertTrue(buddy.alocar(a));
+        assertTrue(buddy.alocar(b));
+        assertEquals(a.inicio ^ 4, b.inicio);
+        buddy.desalocar(a);
+        assertEquals(8, buddy.maiorBlocoLivre()); // o buddy de "a" está ocupado
+        buddy.desalocar(b);
+        assertEquals(16, buddy.maiorBlocoLivre());
+    }
+
+    @Test
+    void memoriaQueNaoEPotenciaDe2NaoJuntaOsBlocosIniciais() {
+        AlocadorBuddy buddy = novo(100); // 64 + 32 + 4
+        assertEquals(100, buddy.livres());
+        assertEquals(64, buddy.maiorBlocoLivre());
+        Processo grande = new Processo("G", 65);
+        assertFalse(buddy.alocar(grande));
+        assertEquals(1, buddy.falhas);
+        Processo p = new Processo("P", 4);
+        assertTrue(buddy.alocar(p));
+        buddy.desalocar(p);
+        assertEquals(100, buddy.livres());
+        assertEquals(64, buddy.maiorBlocoLivre());
+    }
+
+    // só dá para detectar enquanto o bloco não se juntou ao buddy
+    @Test
+    void liberarDuasVezesFalha() {
+        AlocadorBuddy buddy = novo(32);
+        Processo p = new Processo("P", 8), vizinho = new Processo("V", 8);
+        assertTrue(buddy.alocar(p));
+        assertTrue(buddy.alocar(vizinho));
+        int inicio = p.inicio;
+        buddy.desalocar(p);
+        p.inicio = inicio;
+        assertThrows(IllegalStateException.class, () -> buddy.desalocar(p));
+    }
+
+    @Test
+    void blocosNaoSeSobrepoemEVoltaTudoNoFim() {
+        int tamanho = 1 << 12;
+        AlocadorBuddy buddy = novo(tamanho);
+        boolean[] ocupado = new boolean[tamanho];
+        List<Processo> vivos = new ArrayList<>();
+        SplittableRandom rand = new SplittableRandom(3);
+        for (int op = 0; op < 20_000; op++) {
+            if (vivos.isEmpty() || rand.nextBoolean()) {
+                Processo p = new Processo("P" + op, 1 + rand.nextInt(100));
+                if (!buddy.alocar(p)) continue;
+                int bloco = 1 << AlocadorBuddy.ordem(p.tamanho);
+                assertEquals(0, p.inicio % bloco, "bloco alinhado ao próprio tamanho");
+                for (int i = p.inicio; i < p.inicio + bloco; i++) {
+                    assertFalse(ocupado[i]);
+                    ocupado[i] = true;
+                }
+                vivos.add(p);
+            } else {
+                Processo p = vivos.remove(rand.nextInt(vivos.size()));
+                Arrays.fill(ocupado, p.inicio, p.inicio + (1 << AlocadorBuddy.ordem(p.tamanho)), false);
+                buddy.desalocar(p);
+            }
+        }
+        for (Processo p : vivos) buddy.desalocar(p);
+        assertEquals(tamanho, buddy.livres());
+        assertEquals(tamanho, buddy.maiorBlocoLivre());
+        assertEquals(buddy.divisoes, buddy.juncoes);
+    }
+}
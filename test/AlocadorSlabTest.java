@@ -0,0 +1,84 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+import org.junit.jupiter.api.Test;
+
+class AlocadorSlabTest {
+
+    private static GerenciamentoMemoria memoria(int tamanho) {
+        GerenciamentoMemoria gm = new GerenciamentoMemoria(tamanho);
+        gm.verboso = false;
+        return gm;
+    }
+
+    @Test
+    void slabVazioVoltaParaOGerenciadorMenosUmPorCache() {
+        GerenciamentoMemoria gm = memoria(4096);
+        AlocadorSlab slab = new AlocadorSlab(gm, 256);
+        List<Processo> objetos = new ArrayList<>();
+        for (int i = 0; i < 10 * 256 / 8; i++) { // 10 slabs cheios de objetos de 8
+            Processo p = new Processo("o" + i, 8);
+            assertTrue(slab.alocar(p));
+            objetos.add(p);
+        }
+        assertEquals(10 * 256, gm.ocupadas.ler());
+
+        for (Processo p : objetos) slab.desalocar(p);
+        assertEquals(256, gm.ocupadas.ler()); // só o slab vazio guardado
+        for (Processo p : objetos) assertEquals(-1, p.inicio);
+
+        // o slab guardado é reaproveitado sem pedir memória nova
+        Processo p = new Processo("de novo", 8);
+        assertTrue(slab.alocar(p));
+        assertEquals(256, gm.ocupadas.ler());
+    }
+
+    @Test
+    void objetosDoMesmoSlabNaoSeSobrepoem() {
+        GerenciamentoMemoria gm = memoria(1024);
+        AlocadorSlab slab = new AlocadorSlab(gm, 128);
+        Set<Integer> enderecos = new HashSet<>();
+        for (int i = 0; i < 128 / 12; i++) { // um slab de objetos de 12: 10 slots
+            Processo p = new Processo("o" + i, 12);
+            assertTrue(slab.alocar(p));
+            assertEquals(0, p.inicio % 12);
+            assertTrue(enderecos.add(p.inicio));
+        }
+        assertEquals(128, gm.ocupadas.ler());
+    }
+
+    @Test
+    void slotLiberadoEOPrimeiroReusado() {
+        GerenciamentoMemoria gm = memoria(1024);
+        AlocadorSlab slab = new AlocadorSlab(gm, 128);
+        Processo a = new Processo("a", 16), b = new Processo("b", 16);
+        assertTrue(slab.alocar(a));
+        assertTrue(slab.alocar(b));
+        int endereco = a.inicio;
+        slab.desalocar(a);
+        Processo c = new Processo("c", 16);
+        assertTrue(slab.alocar(c));
+        assertEquals(endereco, c.inicio);
+    }
+
+    @Test
+    void objetoGrandeVaiDiretoParaOGerenciador() {
+        GerenciamentoMemoria gm = memoria(1024);
+        AlocadorSlab slab = new AlocadorSlab(gm, 128);
+        Processo grande = new Processo("grande", slab.maiorObjeto + 1);
+        assertTrue(slab.alocar(grande));
+        assertEquals(1, slab.grandes);
+        assertEquals(grande.tamanho, gm.ocupadas.ler());
+        slab.desalocar(grande);
+        assertEquals(0, gm.ocupadas.ler());
+    }
+
+    @Test
+    void falhaQuandoNaoCabeMaisSlab() {
+        GerenciamentoMemoria gm = memoria(256);
+        AlocadorSlab slab = new AlocadorSlab(gm, 128);
+        for (int i = 0; i < 2 * 128 / 16; i++) assertTrue(slab.alocar(new Processo("o" + i, 16)));
+        assertFalse(slab.alocar(new Processo("sem lugar", 16)));
+        assertEquals(1, slab.falhas);
+    }
+}
@@ -0,0 +1,60 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+import org.junit.jupiter.api.Test;
+
+class ConjuntoIntTest {
+
+    @Test
+    void pidGrandeNaoFazATabelaCrescer() {
+        ConjuntoInt c = new ConjuntoInt(0);
+        assertTrue(c.adicionar(100_000_000));
+        assertTrue(c.adicionar(Integer.MAX_VALUE));
+        assertTrue(c.contem(100_000_000));
+        assertFalse(c.contem(99_999_999));
+        assertEquals(2, c.tamanho());
+        assertTrue(c.capacidade() <= 64, "capacidade " + c.capacidade());
+    }
+
+    @Test
+    void memoriaAcompanhaOsMembrosVivos() {
+        ConjuntoInt c = new ConjuntoInt(16);
+        // PIDs sempre novos, como num trace, com no máximo 10 bloqueados ao mesmo tempo
+        for (int pid = 0; pid < 1_000_000; pid++) {
+            assertTrue(c.adicionar(pid));
+            if (pid >= 10) assertTrue(c.remover(pid - 10));
+        }
+        assertEquals(10, c.tamanho());
+        assertTrue(c.capacidade() <= 64, "capacidade " + c.capacidade());
+    }
+
+    @Test
+    void bateComHashSetEmOperacoesAleatorias() {
+        ConjuntoInt c = new ConjuntoInt(4);
+        Set<Integer> esperado = new HashSet<>();
+        SplittableRandom rand = new SplittableRandom(11);
+        for (int op = 0; op < 200_000; op++) {
+            int v = rand.nextInt(3000);
+            if (rand.nextInt(3) == 0) assertEquals(esperado.remove(v), c.remover(v));
+            else assertEquals(esperado.add(v), c.adicionar(v));
+            if (op % 1000 == 0) {
+                Set<Integer> lidos = new HashSet<>();
+                for (int i = 0; i < c.tamanho(); i++) lidos.add(c.get(i));
+                assertEquals(esperado, lidos);
+                for (int k = 0; k < 3000; k += 7) assertEquals(esperado.contains(k), c.contem(k));
+            }
+        }
+        c.limpar();
+        assertEquals(0, c.tamanho());
+        for (int v : esperado) assertFalse(c.contem(v));
+    }
+
+    @Test
+    void ordemDeInsercaoAteAPrimeiraRemocao() {
+        ConjuntoInt c = new ConjuntoInt(16);
+        for (int v : new int[] { 5, 3, 9, 1 }) c.adicionar(v);
+        assertArrayEquals(new int[] { 5, 3, 9, 1 }, new int[] { c.get(0), c.get(1), c.get(2), c.get(3) });
+        c.remover(5);
+        assertArrayEquals(new int[] { 1, 3, 9 }, new int[] { c.get(0), c.get(1), c.get(2) });
+    }
+}
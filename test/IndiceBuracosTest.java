@@ -0,0 +1,116 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+import org.junit.jupiter.api.Test;
+
+class IndiceBuracosTest {
+
+    // buracos maximais de um vetor de ocupação, em ordem de endereço: {inicio, tamanho}
+    private static List<int[]> buracos(boolean[] ocupado) {
+        List<int[]> l = new ArrayList<>();
+        for (int i = 0; i < ocupado.length; ) {
+            if (ocupado[i]) {
+                i++;
+                continue;
+            }
+            int j = i;
+            while (j < ocupado.length && !ocupado[j]) j++;
+            l.add(new int[] { i, j - i });
+            i = j;
+        }
+        return l;
+    }
+
+    private static void conferir(IndiceBuracos indice, boolean[] ocupado) {
+        List<int[]> esperado = buracos(ocupado);
+        List<int[]> lidos = new ArrayList<>();
+        indice.paraCada((inicio, tamanho) -> lidos.add(new int[] { inicio, tamanho }));
+        assertEquals(esperado.size(), lidos.size());
+        for (int i = 0; i < esperado.size(); i++) assertArrayEquals(esperado.get(i), lidos.get(i));
+        assertEquals(esperado.size(), indice.quantidade());
+
+        long livre = 0, quadrados = 0;
+        int maior = 0;
+        for (int[] b : esperado) {
+            livre += b[1];
+            quadrados += (long) b[1] * b[1];
+            maior = Math.max(maior, b[1]);
+        }
+        assertEquals(livre, indice.livre());
+        assertEquals(quadrados, indice.somaQuadrados());
+        assertEquals(maior, indice.maiorTamanho());
+
+        for (int t : new int[] { 1, 3, 17, 100 }) {
+            int primeiro = IndiceBuracos.NENHUM, menor = IndiceBuracos.NENHUM, tamMenor = Integer.MAX_VALUE;
+            for (int[] b : esperado) {
+                if (b[1] < t) continue;
+                if (primeiro == IndiceBuracos.NENHUM) primeiro = b[0];
+                if (b[1] < tamMenor) {
+                    tamMenor = b[1];
+                    menor = b[0];
+                }
+            }
+            assertEquals(primeiro, indice.primeiro(0, t), "primeiro(0, " + t + ")");
+            assertEquals(menor, indice.menorQueCabe(t), "menorQueCabe(" + t + ")");
+        }
+    }
+
+    @Test
+    void liberarJuntaComOsDoisVizinhos() {
+        IndiceBuracos indice = new IndiceBuracos(30);
+        indice.ocupar(0, 30);
+        indice.liberar(0, 10);
+        indice.liberar(20, 10);
+        assertEquals(2, indice.quantidade());
+        indice.liberar(10, 10);
+        assertEquals(1, indice.quantidade());
+        assertEquals(30, indice.tamanhoDoBuraco(0));
+        assertEquals(0.0, indice.indiceFragmentacao());
+    }
+
+    @Test
+    void ocuparNoMeioPartePuraco() {
+        IndiceBuracos indice = new IndiceBuracos(100);
+        indice.ocupar(40, 20);
+        assertEquals(2, indice.quantidade());
+        assertEquals(40, indice.tamanhoDoBuraco(0));
+        assertEquals(40, indice.tamanhoDoBuraco(60));
+        assertEquals(0, indice.buracoEm(39));
+        assertEquals(IndiceBuracos.NENHUM, indice.buracoEm(40));
+        assertEquals(60, indice.primeiro(1, 1));
+    }
+
+    @Test
+    void rejeitaTrechoJaOcupadoOuJaLivre() {
+        IndiceBuracos indice = new IndiceBuracos(50);
+        indice.ocupar(10, 10);
+        assertThrows(IllegalStateException.class, () -> indice.ocupar(15, 10));
+        assertThrows(IllegalStateException.class, () -> indice.liberar(5, 10));
+        assertThrows(IllegalStateException.class, () -> indice.liberar(15, 10));
+    }
+
+    @Test
+    void bateComVetorDeOcupacaoEmOperacoesAleatorias() {
+        int tamanho = 2000;
+        IndiceBuracos indice = new IndiceBuracos(tamanho);
+        boolean[] ocupado = new boolean[tamanho];
+        List<int[]> vivos = new ArrayList<>();
+        SplittableRandom rand = new SplittableRandom(7);
+        for (int op = 0; op < 5000; op++) {
+            if (vivos.isEmpty() || rand.nextInt(10) < 6) {
+                int t = 1 + rand.nextInt(40);
+                int inicio = indice.primeiro(rand.nextInt(tamanho), t);
+                if (inicio == IndiceBuracos.NENHUM) continue;
+                indice.ocupar(inicio, t);
+                Arrays.fill(ocupado, inicio, inicio + t, true);
+                vivos.add(new int[] { inicio, t });
+            } else {
+                int[] b = vivos.remove(rand.nextInt(vivos.size()));
+                indice.liberar(b[0], b[1]);
+                Arrays.fill(ocupado, b[0], b[0] + b[1], false);
+            }
+            if (op % 50 == 0) conferir(indice, ocupado);
+        }
+        conferir(indice, ocupado);
+    }
+}
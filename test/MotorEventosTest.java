@@ -0,0 +1,120 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.random.RandomGenerator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class MotorEventosTest {
+
+    private static List<SimuladorSO.Processo> processos(int n) {
+        List<SimuladorSO.Processo> l = new ArrayList<>();
+        for (int i = 0; i < n; i++) l.add(new SimuladorSO.Processo(i, 2000 + (i % 10) * 1000));
+        return l;
+    }
+
+    private static MotorEventos motor(List<SimuladorSO.Processo> ps, String politica, RandomGenerator rand,
+                                      DiarioTransicoes diario) {
+        return motor(ps, Escalonador.criar(politica, SimuladorSO.QUANTUM), rand, diario);
+    }
+
+    private static MotorEventos motor(List<SimuladorSO.Processo> ps, Escalonador e, RandomGenerator rand,
+                                      DiarioTransicoes diario) {
+        return new MotorEventos(ps, e, SimuladorSO.PROB_ES, Dispositivo.padrao(), rand, null, diario,
+                                RegistroEventos.desligado());
+    }
+
+    // prontos em ordem, estado interno da política e os campos de cada processo (com o dispositivo da E/S)
+    private static String estado(Escalonador e, List<SimuladorSO.Processo> ps) {
+        StringBuilder sb = new StringBuilder(e.pids().toString()).append(Arrays.toString(e.estadoInterno()));
+        for (SimuladorSO.Processo p : ps) {
+            sb.append('|').append(p.estado).append(',').append(p.nivel).append(',').append(p.vruntime)
+              .append(',').append(p.ncpu).append(',').append(p.cp).append(',').append(p.tempoRestante)
+              .append(',').append(p.estado == SimuladorSO.Estado.BLOQUEADO ? p.dispositivo : -1);
+        }
+        return sb.toString();
+    }
+
+    private static String resumo(MotorEventos m) {
+        MetricasEscalonador x = m.metricas();
+        return m.relogio() + " " + m.rodada() + " " + x.turnaround.total() + " " + x.turnaround.media() + " "
+               + x.turnaround.percentil(99) + " " + x.esperaFila.media() + " " + x.despachos.media();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "rr", "mlfq", "cfs", "srtf" })
+    void instantaneoRestauradoContinuaIgual(String politica) throws IOException {
+        MotorEventos original = motor(processos(200), politica, new GeradorSplitMix(9), null);
+        original.iniciar(false);
+        while (original.rodada() < 3000) assertTrue(original.passo());
+        byte[] instantaneo = original.instantaneo();
+        original.executar();
+
+        MotorEventos restaurado = motor(processos(200), politica, new GeradorSplitMix(1), null);
+        restaurado.restaurarInstantaneo(instantaneo);
+        assertEquals(3000, restaurado.rodada());
+        restaurado.executar();
+        assertEquals(resumo(original), resumo(restaurado));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = { 0, 4 })
+    void instantaneoCorrompidoERecusado(int posicao) throws IOException {
+        MotorEventos m = motor(processos(10), "rr", new GeradorSplitMix(9), null);
+        m.iniciar(false);
+        byte[] dados = m.instantaneo();
+        dados[posicao] ^= 0x7f; // mágico ou versão
+        assertThrows(IOException.class, () -> m.restaurarInstantaneo(dados));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "rr", "mlfq", "cfs", "srtf" })
+    void diarioReconstroiOEstadoDaQueda(String politica, @TempDir Path dir) throws IOException {
+        Path arquivoDiario = dir.resolve("diario.bin"), arquivoCheckpoint = dir.resolve("checkpoint.bin");
+        for (int parar : new int[] { 1, 777, 2500 }) {
+            List<SimuladorSO.Processo> ps = processos(100);
+            Escalonador e = Escalonador.criar(politica, SimuladorSO.QUANTUM);
+            String antes;
+            int rodada;
+            try (DiarioTransicoes diario = new DiarioTransicoes(arquivoDiario, arquivoCheckpoint, 64, 1000)) {
+                diario.reiniciar();
+                MotorEventos m = motor(ps, e, new Random(1), diario);
+                m.iniciar(false);
+                while (m.rodada() < parar && m.passo()) {
+                }
+                antes = estado(e, ps);
+                rodada = m.rodada();
+            } // "queda": o que foi registrado já está no disco
+
+            List<SimuladorSO.Processo> ps2 = processos(100);
+            try (DiarioTransicoes diario = new DiarioTransicoes(arquivoDiario, arquivoCheckpoint, 64, 1000)) {
+                Escalonador e2 = Escalonador.criar(politica, SimuladorSO.QUANTUM);
+                MotorEventos m2 = motor(ps2, e2, new Random(1), diario);
+                m2.iniciar(true);
+                assertEquals(antes, estado(e2, ps2), "parar em " + parar);
+                assertEquals(rodada, m2.rodada());
+                m2.executar();
+                for (SimuladorSO.Processo p : ps2) assertEquals(SimuladorSO.Estado.TERMINADO, p.estado);
+            }
+        }
+    }
+
+    @Test
+    void diarioDeOutraPoliticaERecusado(@TempDir Path dir) throws IOException {
+        Path arquivoDiario = dir.resolve("diario.bin"), arquivoCheckpoint = dir.resolve("checkpoint.bin");
+        try (DiarioTransicoes diario = new DiarioTransicoes(arquivoDiario, arquivoCheckpoint, 64, 10)) {
+            MotorEventos m = motor(processos(50), "rr", new Random(1), diario);
+            m.iniciar(false);
+            while (m.rodada() < 200 && m.passo()) {
+            }
+        }
+        try (DiarioTransicoes diario = new DiarioTransicoes(arquivoDiario, arquivoCheckpoint, 64, 10)) {
+            MotorEventos m = motor(processos(50), "cfs", new Random(1), diario);
+            assertThrows(IOException.class, () -> m.iniciar(true));
+        }
+    }
+}